@@ -30,6 +30,24 @@ variable "aws_region" {
   default     = "us-east-1"
 }
 
+variable "due_date_index_ready" {
+  description = "Serve due-date reads from DueDateIndex; set once BackfillOpenDueDatesHandler has completed"
+  type        = bool
+  default     = false
+}
+
+variable "task_cache_ttl_millis" {
+  description = "How long list-tasks containers may serve a user's cached task reads; 0 disables the cache"
+  type        = number
+  default     = 5000
+}
+
+variable "query_plan_header" {
+  description = "Send the X-Query-Plan debug header on list-tasks responses"
+  type        = bool
+  default     = false
+}
+
 variable "jwt_secret" {
   description = "JWT secret key for token signing"
   type        = string
@@ -53,6 +71,79 @@ resource "aws_dynamodb_table" "users" {
   }
 }
 
+# Email-to-userId lookup items, one per registered email
+resource "aws_dynamodb_table" "user_emails" {
+  name           = "${var.environment}-todo-user-emails"
+  billing_mode   = "PAY_PER_REQUEST"
+  hash_key       = "email"
+
+  attribute {
+    name = "email"
+    type = "S"
+  }
+
+  tags = {
+    Environment = var.environment
+    Application = "TodoTaskManager"
+  }
+}
+
+# Users whose tokens must not be accepted statelessly (deactivated or revoked)
+resource "aws_dynamodb_table" "revoked_users" {
+  name           = "${var.environment}-todo-revoked-users"
+  billing_mode   = "PAY_PER_REQUEST"
+  hash_key       = "userId"
+
+  attribute {
+    name = "userId"
+    type = "S"
+  }
+
+  tags = {
+    Environment = var.environment
+    Application = "TodoTaskManager"
+  }
+}
+
+# Failed-login counters shared across containers, one item per throttle key and window
+resource "aws_dynamodb_table" "login_attempts" {
+  name           = "${var.environment}-todo-login-attempts"
+  billing_mode   = "PAY_PER_REQUEST"
+  hash_key       = "attemptKey"
+
+  attribute {
+    name = "attemptKey"
+    type = "S"
+  }
+
+  ttl {
+    attribute_name = "expiresAt"
+    enabled        = true
+  }
+
+  tags = {
+    Environment = var.environment
+    Application = "TodoTaskManager"
+  }
+}
+
+# Materialized per-user task counters, updated in the same transaction as task writes
+resource "aws_dynamodb_table" "task_stats" {
+  name           = "${var.environment}-todo-task-stats"
+  billing_mode   = "PAY_PER_REQUEST"
+  hash_key       = "userId"
+
+  attribute {
+    name = "userId"
+    type = "S"
+  }
+
+  tags = {
+    Environment = var.environment
+    Application = "TodoTaskManager"
+  }
+}
+
 resource "aws_dynamodb_table" "tasks" {
   name           = "${var.environment}-todo-tasks"
   billing_mode   = "PAY_PER_REQUEST"
@@ -69,6 +160,31 @@ resource "aws_dynamodb_table" "tasks" {
     type = "S"
   }
 
+  attribute {
+    name = "statusIndex"
+    type = "S"
+  }
+
+  attribute {
+    name = "openDueDate"
+    type = "S"
+  }
+
+  # Partitioned by "<userId>#<STATUS>" so status filters read only matching tasks
+  global_secondary_index {
+    name            = "StatusIndex"
+    hash_key        = "statusIndex"
+    projection_type = "ALL"
+  }
+
+  # Sparse: only open tasks with a due date carry openDueDate
+  global_secondary_index {
+    name            = "DueDateIndex"
+    hash_key        = "userId"
+    range_key       = "openDueDate"
+    projection_type = "ALL"
+  }
+
   tags = {
     Environment = var.environment
     Application = "TodoTaskManager"
@@ -117,11 +233,17 @@ resource "aws_iam_role_policy" "dynamodb_access" {
           "dynamodb:PutItem",
           "dynamodb:UpdateItem",
           "dynamodb:DeleteItem",
+          "dynamodb:BatchWriteItem",
+          "dynamodb:BatchGetItem",
           "dynamodb:Query",
           "dynamodb:Scan"
         ]
         Resource = [
           aws_dynamodb_table.users.arn,
+          aws_dynamodb_table.user_emails.arn,
+          aws_dynamodb_table.revoked_users.arn,
+          aws_dynamodb_table.login_attempts.arn,
+          aws_dynamodb_table.task_stats.arn,
           aws_dynamodb_table.tasks.arn,
           "${aws_dynamodb_table.tasks.arn}/index/*"
         ]
@@ -230,6 +352,56 @@ resource "aws_lambda_function" "create_task" {
   }
 }
 
+resource "aws_lambda_function" "bulk_create_tasks" {
+  function_name = "${var.environment}-todo-bulk-create-tasks"
+  role         = aws_iam_role.lambda_execution_role.arn
+  handler      = "com.todoapp.lambda.task.BulkCreateTaskHandler::handleRequest"
+  runtime      = "java11"
+  timeout      = 60
+  memory_size  = 512
+
+  filename         = "../target/todo-backend.jar"
+  source_code_hash = filebase64sha256("../target/todo-backend.jar")
+
+  environment {
+    variables = {
+      TASKS_TABLE         = aws_dynamodb_table.tasks.name
+      ENVIRONMENT         = var.environment
+      REMINDER_LAMBDA_ARN = aws_lambda_function.reminder_processor.arn
+    }
+  }
+
+  tags = {
+    Environment = var.environment
+    Application = "TodoTaskManager"
+  }
+}
+
+resource "aws_lambda_function" "count_tasks" {
+  function_name = "${var.environment}-todo-count-tasks"
+  role         = aws_iam_role.lambda_execution_role.arn
+  handler      = "com.todoapp.lambda.task.CountTasksHandler::handleRequest"
+  runtime      = "java11"
+  timeout      = 30
+  memory_size  = 512
+
+  filename         = "../target/todo-backend.jar"
+  source_code_hash = filebase64sha256("../target/todo-backend.jar")
+
+  environment {
+    variables = {
+      TASKS_TABLE          = aws_dynamodb_table.tasks.name
+      ENVIRONMENT          = var.environment
+      DUE_DATE_INDEX_READY = tostring(var.due_date_index_ready)
+    }
+  }
+
+  tags = {
+    Environment = var.environment
+    Application = "TodoTaskManager"
+  }
+}
+
 resource "aws_lambda_function" "get_task" {
   function_name = "${var.environment}-todo-get-task"
   role         = aws_iam_role.lambda_execution_role.arn
@@ -267,8 +439,11 @@ resource "aws_lambda_function" "list_tasks" {
 
   environment {
     variables = {
-      TASKS_TABLE = aws_dynamodb_table.tasks.name
-      ENVIRONMENT = var.environment
+      TASKS_TABLE           = aws_dynamodb_table.tasks.name
+      ENVIRONMENT           = var.environment
+      DUE_DATE_INDEX_READY  = tostring(var.due_date_index_ready)
+      TASK_CACHE_TTL_MILLIS = tostring(var.task_cache_ttl_millis)
+      QUERY_PLAN_HEADER     = tostring(var.query_plan_header)
     }
   }
 
@@ -376,6 +551,18 @@ resource "aws_api_gateway_resource" "tasks" {
   path_part   = "tasks"
 }
 
+resource "aws_api_gateway_resource" "bulk_create_tasks" {
+  rest_api_id = aws_api_gateway_rest_api.todo_api.id
+  parent_id   = aws_api_gateway_resource.tasks.id
+  path_part   = "bulk"
+}
+
+resource "aws_api_gateway_resource" "count_tasks" {
+  rest_api_id = aws_api_gateway_rest_api.todo_api.id
+  parent_id   = aws_api_gateway_resource.tasks.id
+  path_part   = "counts"
+}
+
 resource "aws_api_gateway_resource" "task" {
   rest_api_id = aws_api_gateway_rest_api.todo_api.id
   parent_id   = aws_api_gateway_resource.tasks.id
@@ -507,6 +694,42 @@ resource "aws_api_gateway_integration" "delete_task_integration" {
   uri                    = aws_lambda_function.delete_task.invoke_arn
 }
 
+resource "aws_api_gateway_method" "bulk_create_tasks_post" {
+  rest_api_id   = aws_api_gateway_rest_api.todo_api.id
+  resource_id   = aws_api_gateway_resource.bulk_create_tasks.id
+  http_method   = "POST"
+  authorization = "CUSTOM"
+  authorizer_id = aws_api_gateway_authorizer.api_authorizer.id
+}
+
+resource "aws_api_gateway_integration" "bulk_create_tasks_integration" {
+  rest_api_id = aws_api_gateway_rest_api.todo_api.id
+  resource_id = aws_api_gateway_resource.bulk_create_tasks.id
+  http_method = aws_api_gateway_method.bulk_create_tasks_post.http_method
+
+  integration_http_method = "POST"
+  type                   = "AWS_PROXY"
+  uri                    = aws_lambda_function.bulk_create_tasks.invoke_arn
+}
+
+resource "aws_api_gateway_method" "count_tasks_get" {
+  rest_api_id   = aws_api_gateway_rest_api.todo_api.id
+  resource_id   = aws_api_gateway_resource.count_tasks.id
+  http_method   = "GET"
+  authorization = "CUSTOM"
+  authorizer_id = aws_api_gateway_authorizer.api_authorizer.id
+}
+
+resource "aws_api_gateway_integration" "count_tasks_integration" {
+  rest_api_id = aws_api_gateway_rest_api.todo_api.id
+  resource_id = aws_api_gateway_resource.count_tasks.id
+  http_method = aws_api_gateway_method.count_tasks_get.http_method
+
+  integration_http_method = "POST"
+  type                   = "AWS_PROXY"
+  uri                    = aws_lambda_function.count_tasks.invoke_arn
+}
+
 # CORS Methods
 resource "aws_api_gateway_method" "tasks_options" {
   rest_api_id   = aws_api_gateway_rest_api.todo_api.id
@@ -617,6 +840,22 @@ resource "aws_lambda_permission" "delete_task_api_gateway" {
   source_arn    = "${aws_api_gateway_rest_api.todo_api.execution_arn}/*/*"
 }
 
+resource "aws_lambda_permission" "bulk_create_tasks_api_gateway" {
+  statement_id  = "AllowExecutionFromAPIGateway"
+  action        = "lambda:InvokeFunction"
+  function_name = aws_lambda_function.bulk_create_tasks.function_name
+  principal     = "apigateway.amazonaws.com"
+  source_arn    = "${aws_api_gateway_rest_api.todo_api.execution_arn}/*/*"
+}
+
+resource "aws_lambda_permission" "count_tasks_api_gateway" {
+  statement_id  = "AllowExecutionFromAPIGateway"
+  action        = "lambda:InvokeFunction"
+  function_name = aws_lambda_function.count_tasks.function_name
+  principal     = "apigateway.amazonaws.com"
+  source_arn    = "${aws_api_gateway_rest_api.todo_api.execution_arn}/*/*"
+}
+
 # API Gateway Deployment
 resource "aws_api_gateway_deployment" "api_deployment" {
   rest_api_id = aws_api_gateway_rest_api.todo_api.id
@@ -630,13 +869,17 @@ resource "aws_api_gateway_deployment" "api_deployment" {
     aws_api_gateway_method.get_task_get,
     aws_api_gateway_method.update_task_put,
     aws_api_gateway_method.delete_task_delete,
+    aws_api_gateway_method.bulk_create_tasks_post,
+    aws_api_gateway_method.count_tasks_get,
     aws_api_gateway_integration.register_integration,
     aws_api_gateway_integration.login_integration,
     aws_api_gateway_integration.create_task_integration,
     aws_api_gateway_integration.list_tasks_integration,
     aws_api_gateway_integration.get_task_integration,
     aws_api_gateway_integration.update_task_integration,
-    aws_api_gateway_integration.delete_task_integration
+    aws_api_gateway_integration.delete_task_integration,
+    aws_api_gateway_integration.bulk_create_tasks_integration,
+    aws_api_gateway_integration.count_tasks_integration
   ]
 }
 
@@ -0,0 +1,42 @@
+package com.todoapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Request DTO for creating many tasks at once.
+ * Each task is validated individually so one bad item does not fail the batch.
+ */
+public class BulkCreateTaskRequest {
+    
+    public static final int MAX_TASKS = 500;
+    
+    @JsonProperty("tasks")
+    @NotEmpty(message = "Tasks are required")
+    @Size(max = MAX_TASKS, message = "At most " + MAX_TASKS + " tasks can be created per request")
+    private List<CreateTaskRequest> tasks;
+
+    public BulkCreateTaskRequest() {}
+
+    public BulkCreateTaskRequest(List<CreateTaskRequest> tasks) {
+        this.tasks = tasks;
+    }
+
+    public List<CreateTaskRequest> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<CreateTaskRequest> tasks) {
+        this.tasks = tasks;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkCreateTaskRequest{" +
+                "tasks=" + (tasks != null ? tasks.size() : 0) +
+                '}';
+    }
+}
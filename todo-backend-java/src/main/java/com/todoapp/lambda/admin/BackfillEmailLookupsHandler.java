@@ -0,0 +1,54 @@
+package com.todoapp.lambda.admin;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.util.ServiceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lambda function that backfills UserEmails lookup items for existing users.
+ * Each invocation processes one batch and returns the user ID to resume from,
+ * so it can be re-invoked (e.g. by a Step Functions loop) until complete.
+ */
+public class BackfillEmailLookupsHandler implements RequestHandler<Map<String, Object>, Map<String, Object>> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackfillEmailLookupsHandler.class);
+
+    // Users processed per invocation when the event does not say otherwise
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+
+    public BackfillEmailLookupsHandler() {
+        this.userRepository = ServiceFactory.getUserRepository();
+    }
+
+    // Constructor for testing
+    public BackfillEmailLookupsHandler(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Map<String, Object> handleRequest(Map<String, Object> event, Context context) {
+        Object startUserId = event != null ? event.get("startUserId") : null;
+        Object batchSize = event != null ? event.get("batchSize") : null;
+        int maxUsers = batchSize != null ? Integer.parseInt(batchSize.toString()) : DEFAULT_BATCH_SIZE;
+
+        logger.info("Processing email lookup backfill from user: {} with batch size: {}", startUserId, maxUsers);
+
+        UserRepository.BackfillResult result = userRepository.backfillEmailLookups(
+                startUserId != null ? startUserId.toString() : null, maxUsers);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("scannedUsers", result.getScannedUsers());
+        response.put("createdLookups", result.getCreatedLookups());
+        response.put("startUserId", result.getNextStartUserId());
+        response.put("complete", result.isComplete());
+        return response;
+    }
+}
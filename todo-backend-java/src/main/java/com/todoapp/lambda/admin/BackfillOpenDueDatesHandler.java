@@ -0,0 +1,60 @@
+package com.todoapp.lambda.admin;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.util.ServiceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lambda function that backfills openDueDate on tasks written before the
+ * DueDateIndex existed. Each invocation processes one batch and returns the
+ * task key to resume from, so it can be re-invoked (e.g. by a Step Functions
+ * loop) until complete. Set DUE_DATE_INDEX_READY=true on the task functions
+ * only once it has completed; until then due-date reads use the base table.
+ */
+public class BackfillOpenDueDatesHandler implements RequestHandler<Map<String, Object>, Map<String, Object>> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BackfillOpenDueDatesHandler.class);
+
+    // Tasks processed per invocation when the event does not say otherwise
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final TaskRepository taskRepository;
+
+    public BackfillOpenDueDatesHandler() {
+        this.taskRepository = ServiceFactory.getTaskRepository();
+    }
+
+    // Constructor for testing
+    public BackfillOpenDueDatesHandler(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    public Map<String, Object> handleRequest(Map<String, Object> event, Context context) {
+        Object startUserId = event != null ? event.get("startUserId") : null;
+        Object startTaskId = event != null ? event.get("startTaskId") : null;
+        Object batchSize = event != null ? event.get("batchSize") : null;
+        int maxTasks = batchSize != null ? Integer.parseInt(batchSize.toString()) : DEFAULT_BATCH_SIZE;
+        
+        logger.info("Processing openDueDate backfill from task: {}/{} with batch size: {}", 
+                startUserId, startTaskId, maxTasks);
+        
+        TaskRepository.BackfillResult result = taskRepository.backfillOpenDueDates(
+                startUserId != null ? startUserId.toString() : null,
+                startTaskId != null ? startTaskId.toString() : null, maxTasks);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("scannedTasks", result.getScannedTasks());
+        response.put("updatedTasks", result.getUpdatedTasks());
+        response.put("startUserId", result.getNextStartUserId());
+        response.put("startTaskId", result.getNextStartTaskId());
+        response.put("complete", result.isComplete());
+        return response;
+    }
+}
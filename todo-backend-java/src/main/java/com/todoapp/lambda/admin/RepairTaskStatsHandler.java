@@ -0,0 +1,68 @@
+package com.todoapp.lambda.admin;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.util.ServiceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lambda function that recomputes materialized task statistics from the tasks
+ * themselves. With a userId in the event only that user is repaired;
+ * otherwise every active user is, e.g. once after the stats table is created.
+ */
+public class RepairTaskStatsHandler implements RequestHandler<Map<String, Object>, Map<String, Object>> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepairTaskStatsHandler.class);
+
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+
+    public RepairTaskStatsHandler() {
+        this.userRepository = ServiceFactory.getUserRepository();
+        this.taskRepository = ServiceFactory.getTaskRepository();
+    }
+
+    // Constructor for testing
+    public RepairTaskStatsHandler(UserRepository userRepository, TaskRepository taskRepository) {
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    public Map<String, Object> handleRequest(Map<String, Object> event, Context context) {
+        Object userId = event != null ? event.get("userId") : null;
+
+        Map<String, Object> response = new HashMap<>();
+        if (userId != null) {
+            logger.info("Repairing task statistics for user: {}", userId);
+            response.put("stats", taskRepository.repairStats(userId.toString()));
+            response.put("repairedUsers", 1);
+            response.put("failedUsers", 0);
+            return response;
+        }
+
+        logger.info("Repairing task statistics for all active users");
+        AtomicLong repaired = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        userRepository.forEachActive(user -> {
+            try {
+                taskRepository.repairStats(user.getUserId());
+                repaired.incrementAndGet();
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+            }
+        });
+
+        logger.info("Repaired task statistics for {} users, {} failed", repaired.get(), failed.get());
+        response.put("repairedUsers", repaired.get());
+        response.put("failedUsers", failed.get());
+        return response;
+    }
+}
@@ -7,9 +7,16 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayCustomAuthorizerEv
 import com.todoapp.service.AuthService;
 import com.todoapp.service.JwtService;
 import com.todoapp.util.ServiceFactory;
+import com.todoapp.util.TtlCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,15 +28,30 @@ public class AuthorizerHandler implements RequestHandler<APIGatewayCustomAuthori
     
     private static final Logger logger = LoggerFactory.getLogger(AuthorizerHandler.class);
     
+    // Policies for recently verified tokens, kept until the token expires or the TTL passes.
+    // A hit skips the JWT signature check but still re-checks the user, so deactivation and
+    // revocation take effect within the same bound as an uncached request: the active-user
+    // cache TTL (30s by default), or the revocation filter refresh (60s) in stateless mode.
+    // Both are per container, and API Gateway caches the policy itself for the authorizer's
+    // result TTL (300s in infrastructure/) before this handler sees the token again.
+    private static final int DECISION_CACHE_MAX_ENTRIES = 10000;
+    private static final long DEFAULT_DECISION_CACHE_TTL_MILLIS = 60000;
+    
     private final AuthService authService;
+    private final TtlCache<String, Map<String, Object>> decisionCache;
 
     public AuthorizerHandler() {
-        this.authService = ServiceFactory.getAuthService();
+        this(ServiceFactory.getAuthService(), decisionCacheTtlFromEnv());
     }
 
     // Constructor for testing
     public AuthorizerHandler(AuthService authService) {
+        this(authService, DEFAULT_DECISION_CACHE_TTL_MILLIS);
+    }
+
+    public AuthorizerHandler(AuthService authService, long decisionCacheTtlMillis) {
         this.authService = authService;
+        this.decisionCache = new TtlCache<>(DECISION_CACHE_MAX_ENTRIES, decisionCacheTtlMillis);
     }
 
     @Override
@@ -46,13 +68,29 @@ public class AuthorizerHandler implements RequestHandler<APIGatewayCustomAuthori
                 throw new RuntimeException("Unauthorized");
             }
             
+            // Reuse the policy built for this token and resource by an earlier request
+            String cacheKey = digest(token) + " " + event.getMethodArn();
+            Map<String, Object> cachedPolicy = decisionCache.get(cacheKey);
+            if (cachedPolicy != null) {
+                String principalId = String.valueOf(cachedPolicy.get("principalId"));
+                if (!authService.isUserStillAuthorized(principalId)) {
+                    decisionCache.invalidate(cacheKey);
+                    logger.warn("Cached decision rejected - user not found, inactive or revoked: {}", principalId);
+                    throw new RuntimeException("Unauthorized");
+                }
+                logger.info("Authorized from decision cache for user: {}", principalId);
+                return cachedPolicy;
+            }
+            
             // Validate token and get user info
             JwtService.UserInfo userInfo = authService.validateToken(token);
             
             logger.info("Token validated successfully for user: {}", userInfo.getUserId());
             
             // Generate policy
-            return generatePolicy(userInfo.getUserId(), "Allow", event.getMethodArn(), userInfo);
+            Map<String, Object> policy = generatePolicy(userInfo.getUserId(), "Allow", event.getMethodArn(), userInfo);
+            cacheDecision(cacheKey, policy, userInfo.getExpiresAt());
+            return policy;
             
         } catch (Exception e) {
             logger.error("Authorization failed: {}", e.getMessage(), e);
@@ -60,6 +98,37 @@ public class AuthorizerHandler implements RequestHandler<APIGatewayCustomAuthori
         }
     }
 
+    /**
+     * Cache an Allow policy for no longer than the token remains valid
+     */
+    private void cacheDecision(String cacheKey, Map<String, Object> policy, Instant expiresAt) {
+        if (expiresAt == null) {
+            decisionCache.put(cacheKey, policy);
+            return;
+        }
+        long millisToExpiry = Duration.between(Instant.now(), expiresAt).toMillis();
+        if (millisToExpiry > 0) {
+            decisionCache.put(cacheKey, policy, millisToExpiry);
+        }
+    }
+
+    /**
+     * SHA-256 digest of the token, so raw tokens are never kept as cache keys
+     */
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static long decisionCacheTtlFromEnv() {
+        String value = System.getenv("AUTHORIZER_CACHE_TTL_MILLIS");
+        return value == null || value.trim().isEmpty() ? DEFAULT_DECISION_CACHE_TTL_MILLIS : Long.parseLong(value.trim());
+    }
+
     /**
      * Extract JWT token from the event
      */
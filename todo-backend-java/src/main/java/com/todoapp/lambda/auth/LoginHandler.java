@@ -45,7 +45,7 @@ public class LoginHandler implements RequestHandler<APIGatewayProxyRequestEvent,
             logger.info("Logging in user with email: {}", loginRequest.getEmail());
             
             // Authenticate user
-            AuthResponse authResponse = authService.login(loginRequest);
+            AuthResponse authResponse = authService.login(loginRequest, getSourceIp(request));
             
             logger.info("User logged in successfully: {}", authResponse.getUserId());
             
@@ -58,6 +58,10 @@ public class LoginHandler implements RequestHandler<APIGatewayProxyRequestEvent,
             if (e.getMessage().contains("Invalid email or password") || 
                 e.getMessage().contains("Account is inactive")) {
                 return LambdaUtils.createErrorResponse(e.getMessage(), 401);
+            } else if (e.getMessage().contains("Too many login attempts")) {
+                return LambdaUtils.createErrorResponse("Too many login attempts", 429);
+            } else if (e.getMessage().contains("Authentication service busy")) {
+                return LambdaUtils.createErrorResponse("Authentication service busy, please retry", 503);
             } else if (e.getMessage().contains("Validation failed")) {
                 return LambdaUtils.createErrorResponse(e.getMessage(), 400);
             } else {
@@ -65,4 +69,11 @@ public class LoginHandler implements RequestHandler<APIGatewayProxyRequestEvent,
             }
         }
     }
+
+    private String getSourceIp(APIGatewayProxyRequestEvent request) {
+        if (request.getRequestContext() == null || request.getRequestContext().getIdentity() == null) {
+            return null;
+        }
+        return request.getRequestContext().getIdentity().getSourceIp();
+    }
 }
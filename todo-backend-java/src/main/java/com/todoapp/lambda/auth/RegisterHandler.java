@@ -57,6 +57,8 @@ public class RegisterHandler implements RequestHandler<APIGatewayProxyRequestEve
             // Handle specific error cases
             if (e.getMessage().contains("Email already registered")) {
                 return LambdaUtils.createErrorResponse("Email already registered", 409);
+            } else if (e.getMessage().contains("Authentication service busy")) {
+                return LambdaUtils.createErrorResponse("Authentication service busy, please retry", 503);
             } else if (e.getMessage().contains("Validation failed")) {
                 return LambdaUtils.createErrorResponse(e.getMessage(), 400);
             } else {
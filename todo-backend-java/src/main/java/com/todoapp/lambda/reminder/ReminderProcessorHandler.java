@@ -92,8 +92,7 @@ public class ReminderProcessorHandler implements RequestHandler<Map<String, Obje
             
             // Update task to mark reminder as sent
             if (success) {
-                task.setReminderSent(true);
-                taskRepository.save(task);
+                taskRepository.markReminderSent(task.getUserId(), taskId);
                 logger.info("Reminder processed successfully for task: " + taskId);
                 return "SUCCESS: Reminder sent";
             } else {
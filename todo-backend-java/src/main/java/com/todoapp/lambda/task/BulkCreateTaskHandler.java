@@ -0,0 +1,141 @@
+package com.todoapp.lambda.task;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.todoapp.dto.BulkCreateTaskRequest;
+import com.todoapp.dto.CreateTaskRequest;
+import com.todoapp.model.Task;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.service.ReminderService;
+import com.todoapp.util.LambdaUtils;
+import com.todoapp.util.ServiceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lambda function for creating many tasks in one request (e.g. imports)
+ */
+public class BulkCreateTaskHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BulkCreateTaskHandler.class);
+
+    private final TaskRepository taskRepository;
+    private final ReminderService reminderService;
+
+    public BulkCreateTaskHandler() {
+        this.taskRepository = ServiceFactory.getTaskRepository();
+        this.reminderService = new ReminderService();
+    }
+
+    // Constructor for testing
+    public BulkCreateTaskHandler(TaskRepository taskRepository, ReminderService reminderService) {
+        this.taskRepository = taskRepository;
+        this.reminderService = reminderService;
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        logger.info("Processing bulk create task request");
+        
+        return LambdaUtils.handleRequest(request, this::processBulkCreateTasks);
+    }
+
+    private APIGatewayProxyResponseEvent processBulkCreateTasks(APIGatewayProxyRequestEvent request) {
+        try {
+            // Get user ID from authorizer context
+            String userId = getUserIdFromContext(request);
+            
+            // Parse request body
+            BulkCreateTaskRequest bulkRequest = LambdaUtils.parseRequestBody(request, BulkCreateTaskRequest.class);
+            List<CreateTaskRequest> createRequests = bulkRequest.getTasks();
+            
+            logger.info("Bulk creating {} tasks for user: {}", createRequests.size(), userId);
+            
+            // Validate each task individually; invalid items are reported, not fatal
+            List<Map<String, Object>> results = new ArrayList<>();
+            Map<String, Map<String, Object>> resultsByTaskId = new HashMap<>();
+            List<Task> tasks = new ArrayList<>();
+            
+            for (int index = 0; index < createRequests.size(); index++) {
+                CreateTaskRequest createRequest = createRequests.get(index);
+                Map<String, Object> result = new HashMap<>();
+                result.put("index", index);
+                results.add(result);
+                
+                String validationErrors = createRequest != null
+                        ? LambdaUtils.getValidationErrors(createRequest) : "Task is required";
+                if (validationErrors != null) {
+                    result.put("success", false);
+                    result.put("error", "Validation failed: " + validationErrors);
+                    continue;
+                }
+                
+                Task task = CreateTaskHandler.buildTask(userId, createRequest);
+                tasks.add(task);
+                resultsByTaskId.put(task.getTaskId(), result);
+            }
+            
+            // Write valid tasks in batches
+            TaskRepository.BatchSaveResult saveResult = tasks.isEmpty()
+                    ? new TaskRepository.BatchSaveResult(List.of(), Set.of())
+                    : taskRepository.saveAll(tasks);
+            
+            for (Task savedTask : saveResult.getSavedTasks()) {
+                Map<String, Object> result = resultsByTaskId.get(savedTask.getTaskId());
+                result.put("success", true);
+                result.put("task", savedTask);
+                CreateTaskHandler.scheduleReminder(reminderService, savedTask);
+            }
+            
+            for (String failedTaskId : saveResult.getFailedTaskIds()) {
+                Map<String, Object> result = resultsByTaskId.get(failedTaskId);
+                result.put("success", false);
+                result.put("error", "Failed to save task");
+            }
+            
+            int created = saveResult.getSavedTasks().size();
+            logger.info("Bulk created {} of {} tasks for user: {}", created, createRequests.size(), userId);
+            
+            // Prepare response
+            Map<String, Object> response = new HashMap<>();
+            response.put("results", results);
+            response.put("created", created);
+            response.put("failed", createRequests.size() - created);
+            
+            return LambdaUtils.createSuccessResponse(response, "Bulk create completed");
+        
+        } catch (Exception e) {
+            logger.error("Failed to bulk create tasks: {}", e.getMessage(), e);
+            
+            if (e.getMessage().contains("Validation failed") || e.getMessage().contains("Invalid request body")) {
+                return LambdaUtils.createErrorResponse(e.getMessage(), 400);
+            } else {
+                return LambdaUtils.createErrorResponse("Failed to create tasks", 500);
+            }
+        }
+    }
+
+    /**
+     * Extract user ID from authorizer context
+     */
+    private String getUserIdFromContext(APIGatewayProxyRequestEvent request) {
+        if (request.getRequestContext() != null &&
+            request.getRequestContext().getAuthorizer() != null) {
+            
+            Object userId = request.getRequestContext().getAuthorizer().get("userId");
+            if (userId != null) {
+                return userId.toString();
+            }
+        }
+        
+        throw new SecurityException("User ID not found in request context");
+    }
+}
@@ -0,0 +1,99 @@
+package com.todoapp.lambda.task;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.todoapp.model.Task;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.util.LambdaUtils;
+import com.todoapp.util.ServiceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lambda function for task counts, e.g. for badge rendering. Counts are
+ * computed without reading any task: a single status or the overdue count
+ * uses a count-only query, and the full set comes from the materialized
+ * statistics.
+ */
+public class CountTasksHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CountTasksHandler.class);
+
+    private final TaskRepository taskRepository;
+
+    public CountTasksHandler() {
+        this.taskRepository = ServiceFactory.getTaskRepository();
+    }
+
+    // Constructor for testing
+    public CountTasksHandler(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        logger.info("Processing count tasks request");
+
+        return LambdaUtils.handleRequest(request, this::processCountTasks);
+    }
+
+    private APIGatewayProxyResponseEvent processCountTasks(APIGatewayProxyRequestEvent request) {
+        try {
+            // Get user ID from authorizer context
+            String userId = getUserIdFromContext(request);
+
+            String status = LambdaUtils.getQueryParameter(request, "status");
+            String overdue = LambdaUtils.getQueryParameter(request, "overdue");
+
+            Map<String, Object> response = new HashMap<>();
+            if (status != null && !status.trim().isEmpty()) {
+                Task.TaskStatus taskStatus;
+                try {
+                    taskStatus = Task.TaskStatus.valueOf(status.toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    return LambdaUtils.createErrorResponse("Invalid status value: " + status, 400);
+                }
+                response.put("status", taskStatus.name());
+                response.put("count", taskRepository.countByUserIdAndStatus(userId, taskStatus));
+            } else if ("true".equalsIgnoreCase(overdue)) {
+                response.put("overdueTasks", taskRepository.countOverdueTasks(userId));
+            } else {
+                TaskRepository.TaskStats stats = taskRepository.getTaskStats(userId);
+                response.put("totalTasks", stats.getTotalTasks());
+                response.put("completedTasks", stats.getCompletedTasks());
+                response.put("pendingTasks", stats.getPendingTasks());
+                response.put("inProgressTasks", stats.getInProgressTasks());
+                response.put("overdueTasks", stats.getOverdueTasks());
+            }
+
+            logger.info("Counted tasks for user: {}", userId);
+
+            return LambdaUtils.createSuccessResponse(response);
+
+        } catch (Exception e) {
+            logger.error("Failed to count tasks: {}", e.getMessage(), e);
+            return LambdaUtils.createErrorResponse("Failed to count tasks", 500);
+        }
+    }
+
+    /**
+     * Extract user ID from authorizer context
+     */
+    private String getUserIdFromContext(APIGatewayProxyRequestEvent request) {
+        if (request.getRequestContext() != null &&
+            request.getRequestContext().getAuthorizer() != null) {
+
+            Object userId = request.getRequestContext().getAuthorizer().get("userId");
+            if (userId != null) {
+                return userId.toString();
+            }
+        }
+
+        throw new SecurityException("User ID not found in request context");
+    }
+}
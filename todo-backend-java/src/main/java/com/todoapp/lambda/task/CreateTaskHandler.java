@@ -54,41 +54,14 @@ public class CreateTaskHandler implements RequestHandler<APIGatewayProxyRequestE
             logger.info("Creating task for user: {} with title: {}", userId, createRequest.getTitle());
             
             // Create task
-            String taskId = UUID.randomUUID().toString();
-            Task task = new Task(taskId, userId, createRequest.getTitle(), createRequest.getDescription());
-            task.setPriority(createRequest.getPriority());
-            task.setDueDate(createRequest.getDueDate());
-            
-            // Set reminder fields if provided
-            if (createRequest.getReminderType() != null) {
-                task.setReminderType(createRequest.getReminderType());
-                if (createRequest.getReminderTime() != null) {
-                    task.setReminderTime(createRequest.getReminderTime().toInstant(java.time.ZoneOffset.UTC));
-                }
-                task.setPhoneNumber(createRequest.getPhoneNumber());
-                task.setReminderSent(false);
-                
-                logger.info("Task created with reminder: type={}, time={}", 
-                          createRequest.getReminderType(), createRequest.getReminderTime());
-            }
+            Task task = buildTask(userId, createRequest);
+            String taskId = task.getTaskId();
             
             // Save task
             Task savedTask = taskRepository.save(task);
             
             // Schedule reminder if specified
-            if (savedTask.getReminderType() != null && savedTask.getReminderTime() != null) {
-                try {
-                    boolean reminderScheduled = reminderService.scheduleReminder(savedTask);
-                    if (reminderScheduled) {
-                        logger.info("Reminder scheduled successfully for task: {}", taskId);
-                    } else {
-                        logger.warn("Failed to schedule reminder for task: {}", taskId);
-                    }
-                } catch (Exception e) {
-                    logger.error("Error scheduling reminder for task: {}", taskId, e);
-                    // Don't fail task creation if reminder scheduling fails
-                }
-            }
+            scheduleReminder(reminderService, savedTask);
             
             logger.info("Task created successfully: {} for user: {}", taskId, userId);
             
@@ -105,6 +78,51 @@ public class CreateTaskHandler implements RequestHandler<APIGatewayProxyRequestE
         }
     }
 
+    /**
+     * Build a new task for a user from a create request
+     */
+    static Task buildTask(String userId, CreateTaskRequest createRequest) {
+        String taskId = UUID.randomUUID().toString();
+        Task task = new Task(taskId, userId, createRequest.getTitle(), createRequest.getDescription());
+        task.setPriority(createRequest.getPriority());
+        task.setDueDate(createRequest.getDueDate());
+        
+        // Set reminder fields if provided
+        if (createRequest.getReminderType() != null) {
+            task.setReminderType(createRequest.getReminderType());
+            if (createRequest.getReminderTime() != null) {
+                task.setReminderTime(createRequest.getReminderTime().toInstant(java.time.ZoneOffset.UTC));
+            }
+            task.setPhoneNumber(createRequest.getPhoneNumber());
+            task.setReminderSent(false);
+            
+            logger.info("Task created with reminder: type={}, time={}", 
+                      createRequest.getReminderType(), createRequest.getReminderTime());
+        }
+        
+        return task;
+    }
+
+    /**
+     * Schedule the reminder for a saved task, if it has one
+     */
+    static void scheduleReminder(ReminderService reminderService, Task savedTask) {
+        if (savedTask.getReminderType() != null && savedTask.getReminderTime() != null) {
+            String taskId = savedTask.getTaskId();
+            try {
+                boolean reminderScheduled = reminderService.scheduleReminder(savedTask);
+                if (reminderScheduled) {
+                    logger.info("Reminder scheduled successfully for task: {}", taskId);
+                } else {
+                    logger.warn("Failed to schedule reminder for task: {}", taskId);
+                }
+            } catch (Exception e) {
+                logger.error("Error scheduling reminder for task: {}", taskId, e);
+                // Don't fail task creation if reminder scheduling fails
+            }
+        }
+    }
+
     /**
      * Extract user ID from authorizer context
      */
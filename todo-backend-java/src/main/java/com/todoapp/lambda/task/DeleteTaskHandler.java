@@ -45,8 +45,11 @@ public class DeleteTaskHandler implements RequestHandler<APIGatewayProxyRequestE
             
             logger.info("Deleting task: {} for user: {}", taskId, userId);
             
+            // Optional optimistic concurrency check
+            Long expectedVersion = LambdaUtils.getIfMatchVersion(request);
+            
             // Delete task (soft delete)
-            taskRepository.delete(userId, taskId);
+            taskRepository.delete(userId, taskId, expectedVersion);
             
             logger.info("Task deleted successfully: {} for user: {}", taskId, userId);
             
@@ -57,6 +60,10 @@ public class DeleteTaskHandler implements RequestHandler<APIGatewayProxyRequestE
             
             if (e.getMessage().contains("Task not found")) {
                 return LambdaUtils.createErrorResponse("Task not found", 404);
+            } else if (e.getMessage().contains("Invalid If-Match")) {
+                return LambdaUtils.createErrorResponse(e.getMessage(), 400);
+            } else if (e.getMessage().contains("Version conflict")) {
+                return LambdaUtils.createErrorResponse("Task was modified by another request", 412);
             } else {
                 return LambdaUtils.createErrorResponse("Failed to delete task", 500);
             }
@@ -60,7 +60,7 @@ public class GetTaskHandler implements RequestHandler<APIGatewayProxyRequestEven
             
             logger.info("Task found successfully: {} for user: {}", taskId, userId);
             
-            return LambdaUtils.createSuccessResponse(task);
+            return LambdaUtils.createSuccessResponse(task, null, LambdaUtils.versionHeaders(task.getVersion()));
             
         } catch (Exception e) {
             logger.error("Failed to get task: {}", e.getMessage(), e);
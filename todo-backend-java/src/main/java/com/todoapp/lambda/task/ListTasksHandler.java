@@ -5,15 +5,25 @@ import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.todoapp.model.Task;
+import com.todoapp.repository.AsyncTaskRepository;
+import com.todoapp.repository.TaskFilter;
 import com.todoapp.repository.TaskRepository;
 import com.todoapp.util.LambdaUtils;
 import com.todoapp.util.ServiceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * Lambda function for listing tasks with filtering
@@ -22,15 +32,35 @@ public class ListTasksHandler implements RequestHandler<APIGatewayProxyRequestEv
     
     private static final Logger logger = LoggerFactory.getLogger(ListTasksHandler.class);
     
-    private final TaskRepository taskRepository;
+    // Page size used when the client does not pass a limit
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    
+    // Window used by due=upcoming when the client does not pass days
+    private static final int DEFAULT_DUE_WITHIN_DAYS = 7;
+    private static final int MAX_DUE_WITHIN_DAYS = 365;
+    
+    // Upper bound on ids=... in a single multi-get request
+    private static final int MAX_TASK_IDS = 200;
+    
+    // Upper bound on the q=... search text
+    private static final int MAX_SEARCH_TEXT_LENGTH = 200;
+    
+    // Response header describing the query plan that served the page, sent only when QUERY_PLAN_HEADER=true
+    private static final String QUERY_PLAN_HEADER = "X-Query-Plan";
+    private static final boolean QUERY_PLAN_HEADER_ENABLED = Boolean.parseBoolean(System.getenv("QUERY_PLAN_HEADER"));
+    
+    // Only ids= requests need the sync client, so it is created on first use
+    private TaskRepository taskRepository;
+    private final AsyncTaskRepository asyncTaskRepository;
 
     public ListTasksHandler() {
-        this.taskRepository = ServiceFactory.getTaskRepository();
+        this.asyncTaskRepository = ServiceFactory.getAsyncTaskRepository();
     }
 
     // Constructor for testing
-    public ListTasksHandler(TaskRepository taskRepository) {
+    public ListTasksHandler(TaskRepository taskRepository, AsyncTaskRepository asyncTaskRepository) {
         this.taskRepository = taskRepository;
+        this.asyncTaskRepository = asyncTaskRepository;
     }
 
     @Override
@@ -40,6 +70,13 @@ public class ListTasksHandler implements RequestHandler<APIGatewayProxyRequestEv
         return LambdaUtils.handleRequest(request, this::processListTasks);
     }
 
+    private TaskRepository getTaskRepository() {
+        if (taskRepository == null) {
+            taskRepository = ServiceFactory.getTaskRepository();
+        }
+        return taskRepository;
+    }
+
     private APIGatewayProxyResponseEvent processListTasks(APIGatewayProxyRequestEvent request) {
         try {
             // Get user ID from authorizer context
@@ -49,45 +86,86 @@ public class ListTasksHandler implements RequestHandler<APIGatewayProxyRequestEv
             String status = LambdaUtils.getQueryParameter(request, "status");
             String priority = LambdaUtils.getQueryParameter(request, "priority");
             String overdue = LambdaUtils.getQueryParameter(request, "overdue");
+            String due = LambdaUtils.getQueryParameter(request, "due");
+            String days = LambdaUtils.getQueryParameter(request, "days");
+            String dueFrom = LambdaUtils.getQueryParameter(request, "dueFrom");
+            String dueTo = LambdaUtils.getQueryParameter(request, "dueTo");
+            String text = LambdaUtils.getQueryParameter(request, "q");
             String includeStats = LambdaUtils.getQueryParameter(request, "includeStats", "false");
+            String limitParam = LambdaUtils.getQueryParameter(request, "limit");
+            String cursor = LambdaUtils.getQueryParameter(request, "cursor");
+            String ids = LambdaUtils.getQueryParameter(request, "ids");
+            String fieldsParam = LambdaUtils.getQueryParameter(request, "fields");
             
-            logger.info("Listing tasks for user: {} with filters - status: {}, priority: {}, overdue: {}", 
-                    userId, status, priority, overdue);
+            // Sparse fieldset: read and return only the requested task fields
+            Set<String> fields = null;
+            if (fieldsParam != null && !fieldsParam.trim().isEmpty()) {
+                fields = new LinkedHashSet<>();
+                fields.add("taskId");
+                for (String field : fieldsParam.split(",")) {
+                    String name = field.trim();
+                    if (name.isEmpty()) {
+                        continue;
+                    }
+                    if (!Task.SELECTABLE_FIELDS.containsKey(name)) {
+                        return LambdaUtils.createErrorResponse("Invalid field: " + name, 400);
+                    }
+                    fields.add(name);
+                }
+            }
+            
+            // Multi-get mode: resolve an explicit list of task IDs in one call
+            if (ids != null && !ids.trim().isEmpty()) {
+                return processGetTasksByIds(userId, ids, fields);
+            }
             
-            List<Task> tasks;
+            logger.info("Listing tasks for user: {} with filters - status: {}, priority: {}, overdue: {}, due: {}, " +
+                    "dueFrom: {}, dueTo: {}, q: {}, limit: {}", 
+                    userId, status, priority, overdue, due, dueFrom, dueTo, text, limitParam);
             
-            // Apply filters
-            if ("true".equalsIgnoreCase(overdue)) {
-                tasks = taskRepository.findOverdueTasks(userId);
-            } else if (status != null && !status.trim().isEmpty()) {
+            int limit = DEFAULT_PAGE_SIZE;
+            if (limitParam != null && !limitParam.trim().isEmpty()) {
                 try {
-                    Task.TaskStatus taskStatus = Task.TaskStatus.valueOf(status.toUpperCase());
-                    tasks = taskRepository.findByUserIdAndStatus(userId, taskStatus);
-                } catch (IllegalArgumentException e) {
-                    return LambdaUtils.createErrorResponse("Invalid status value: " + status, 400);
+                    limit = Integer.parseInt(limitParam.trim());
+                } catch (NumberFormatException e) {
+                    return LambdaUtils.createErrorResponse("Invalid limit value: " + limitParam, 400);
                 }
-            } else if (priority != null && !priority.trim().isEmpty()) {
-                try {
-                    Task.TaskPriority taskPriority = Task.TaskPriority.valueOf(priority.toUpperCase());
-                    tasks = taskRepository.findByUserIdAndPriority(userId, taskPriority);
-                } catch (IllegalArgumentException e) {
-                    return LambdaUtils.createErrorResponse("Invalid priority value: " + priority, 400);
+                if (limit < 1 || limit > TaskRepository.MAX_PAGE_SIZE) {
+                    return LambdaUtils.createErrorResponse(
+                            "Limit must be between 1 and " + TaskRepository.MAX_PAGE_SIZE, 400);
                 }
-            } else {
-                // Get all tasks
-                tasks = taskRepository.findByUserId(userId);
             }
             
-            logger.info("Found {} tasks for user: {}", tasks.size(), userId);
+            // Combine every filter into one planned query
+            TaskFilter filter;
+            CompletableFuture<TaskRepository.TaskPage> pageFuture;
+            try {
+                filter = parseFilter(status, priority, overdue, due, days, dueFrom, dueTo, text);
+                pageFuture = asyncTaskRepository.findMatching(userId, filter, limit, cursor, fields);
+            } catch (IllegalArgumentException e) {
+                return LambdaUtils.createErrorResponse(e.getMessage(), 400);
+            }
+            
+            // Statistics come from the materialized counters, read concurrently with the page
+            CompletableFuture<TaskRepository.TaskStats> statsFuture = "true".equalsIgnoreCase(includeStats)
+                    ? asyncTaskRepository.getTaskStats(userId)
+                    : CompletableFuture.completedFuture(null);
+            
+            TaskRepository.TaskPage page = pageFuture.join();
+            List<Task> tasks = page.getTasks();
+            
+            logger.info("Found {} tasks for user: {} (hasMore: {})", tasks.size(), userId, page.hasMore());
             
             // Prepare response
             Map<String, Object> response = new HashMap<>();
-            response.put("tasks", tasks);
+            response.put("tasks", LambdaUtils.selectFields(tasks, fields));
             response.put("count", tasks.size());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.hasMore());
             
             // Include statistics if requested
-            if ("true".equalsIgnoreCase(includeStats)) {
-                TaskRepository.TaskStats stats = taskRepository.getTaskStats(userId);
+            TaskRepository.TaskStats stats = statsFuture.join();
+            if (stats != null) {
                 Map<String, Object> statsMap = new HashMap<>();
                 statsMap.put("totalTasks", stats.getTotalTasks());
                 statsMap.put("completedTasks", stats.getCompletedTasks());
@@ -97,7 +175,7 @@ public class ListTasksHandler implements RequestHandler<APIGatewayProxyRequestEv
                 response.put("statistics", statsMap);
             }
             
-            return LambdaUtils.createSuccessResponse(response);
+            return LambdaUtils.createSuccessResponse(response, null, queryPlanHeaders(page));
             
         } catch (Exception e) {
             logger.error("Failed to list tasks: {}", e.getMessage(), e);
@@ -105,6 +183,139 @@ public class ListTasksHandler implements RequestHandler<APIGatewayProxyRequestEv
         }
     }
 
+    /**
+     * Build the task filter from the query parameters. Status and priority
+     * take comma-separated lists; overdue, due=overdue|today|upcoming and an
+     * explicit dueFrom/dueTo are alternative ways to give the due range.
+     */
+    private static TaskFilter parseFilter(String status, String priority, String overdue, String due, String days,
+                                          String dueFrom, String dueTo, String text) {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(parseList(status, Task.TaskStatus.class, "status"));
+        filter.setPriorities(parseList(priority, Task.TaskPriority.class, "priority"));
+        
+        LocalDate today = LocalDate.now();
+        boolean presetDue = "true".equalsIgnoreCase(overdue) || !isBlank(due);
+        if (presetDue && (!isBlank(dueFrom) || !isBlank(dueTo))) {
+            throw new IllegalArgumentException("due and overdue cannot be combined with dueFrom or dueTo");
+        }
+        if ("true".equalsIgnoreCase(overdue) || "overdue".equalsIgnoreCase(due)) {
+            filter.setDueTo(today.minusDays(1));
+        } else if ("today".equalsIgnoreCase(due)) {
+            filter.setDueFrom(today);
+            filter.setDueTo(today);
+        } else if ("upcoming".equalsIgnoreCase(due)) {
+            int dueWithinDays = DEFAULT_DUE_WITHIN_DAYS;
+            if (!isBlank(days)) {
+                try {
+                    dueWithinDays = Integer.parseInt(days.trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid days value: " + days);
+                }
+                if (dueWithinDays < 0 || dueWithinDays > MAX_DUE_WITHIN_DAYS) {
+                    throw new IllegalArgumentException("Days must be between 0 and " + MAX_DUE_WITHIN_DAYS);
+                }
+            }
+            filter.setDueFrom(today);
+            filter.setDueTo(today.plusDays(dueWithinDays));
+        } else if (!isBlank(due)) {
+            throw new IllegalArgumentException("Invalid due value: " + due);
+        } else {
+            filter.setDueFrom(parseDate(dueFrom, "dueFrom"));
+            filter.setDueTo(parseDate(dueTo, "dueTo"));
+            if (filter.getDueFrom() != null && filter.getDueTo() != null && filter.getDueFrom().isAfter(filter.getDueTo())) {
+                throw new IllegalArgumentException("dueFrom must not be after dueTo");
+            }
+        }
+        
+        if (!isBlank(text)) {
+            if (text.trim().length() > MAX_SEARCH_TEXT_LENGTH) {
+                throw new IllegalArgumentException("Search text must be at most " + MAX_SEARCH_TEXT_LENGTH + " characters");
+            }
+            filter.setText(text.trim());
+        }
+        return filter;
+    }
+
+    private static <E extends Enum<E>> Set<E> parseList(String value, Class<E> type, String name) {
+        Set<E> values = EnumSet.noneOf(type);
+        if (isBlank(value)) {
+            return values;
+        }
+        for (String item : value.split(",")) {
+            if (item.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                values.add(Enum.valueOf(type, item.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid " + name + " value: " + item.trim());
+            }
+        }
+        return values;
+    }
+
+    private static LocalDate parseDate(String value, String name) {
+        if (isBlank(value)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + " value: " + value);
+        }
+    }
+
+    /**
+     * Expose the query that served the page, for debugging slow or surprising lists
+     */
+    private static Map<String, String> queryPlanHeaders(TaskRepository.TaskPage page) {
+        if (!QUERY_PLAN_HEADER_ENABLED || page.getQueryPlan() == null) {
+            return Map.of();
+        }
+        return Map.of(QUERY_PLAN_HEADER, page.getQueryPlan(),
+                "Access-Control-Expose-Headers", "ETag," + QUERY_PLAN_HEADER);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * Resolve a comma-separated list of task IDs with a single batch read
+     */
+    private APIGatewayProxyResponseEvent processGetTasksByIds(String userId, String ids, Set<String> fields) {
+        List<String> taskIds = Arrays.stream(ids.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        
+        if (taskIds.isEmpty()) {
+            return LambdaUtils.createErrorResponse("Invalid ids value: " + ids, 400);
+        }
+        if (taskIds.size() > MAX_TASK_IDS) {
+            return LambdaUtils.createErrorResponse("At most " + MAX_TASK_IDS + " ids can be requested", 400);
+        }
+        
+        logger.info("Getting {} tasks by ID for user: {}", taskIds.size(), userId);
+        
+        List<Task> tasks = getTaskRepository().findByUserIdAndTaskIds(userId, taskIds, fields);
+        
+        Set<String> foundIds = tasks.stream().map(Task::getTaskId).collect(Collectors.toSet());
+        List<String> missingIds = taskIds.stream()
+                .filter(id -> !foundIds.contains(id))
+                .collect(Collectors.toList());
+        
+        // Prepare response
+        Map<String, Object> response = new HashMap<>();
+        response.put("tasks", LambdaUtils.selectFields(tasks, fields));
+        response.put("count", tasks.size());
+        response.put("missingIds", missingIds);
+        
+        return LambdaUtils.createSuccessResponse(response);
+    }
+
     /**
      * Extract user ID from authorizer context
      */
@@ -50,54 +50,33 @@ public class UpdateTaskHandler implements RequestHandler<APIGatewayProxyRequestE
             // Parse request body
             UpdateTaskRequest updateRequest = LambdaUtils.parseRequestBody(request, UpdateTaskRequest.class);
             
+            // Optional optimistic concurrency check
+            Long expectedVersion = LambdaUtils.getIfMatchVersion(request);
+            
             logger.info("Updating task: {} for user: {}", taskId, userId);
             
-            // Find existing task
-            Optional<Task> taskOpt = taskRepository.findByUserIdAndTaskId(userId, taskId);
+            // Apply only the provided fields in one conditional write
+            Optional<Task> updatedTaskOpt = taskRepository.patch(userId, taskId, updateRequest, expectedVersion);
             
-            if (!taskOpt.isPresent()) {
+            if (!updatedTaskOpt.isPresent()) {
                 logger.warn("Task not found: {} for user: {}", taskId, userId);
                 return LambdaUtils.createErrorResponse("Task not found", 404);
             }
             
-            Task task = taskOpt.get();
-            
-            // Update task fields if provided
-            if (updateRequest.getTitle() != null && !updateRequest.getTitle().trim().isEmpty()) {
-                task.setTitle(updateRequest.getTitle().trim());
-            }
-            
-            if (updateRequest.getDescription() != null) {
-                task.setDescription(updateRequest.getDescription().trim());
-            }
-            
-            if (updateRequest.getStatus() != null) {
-                task.setStatus(updateRequest.getStatus());
-            }
-            
-            if (updateRequest.getPriority() != null) {
-                task.setPriority(updateRequest.getPriority());
-            }
-            
-            if (updateRequest.getDueDate() != null) {
-                task.setDueDate(updateRequest.getDueDate());
-            }
-            
-            // Update timestamp
-            task.updateTimestamp();
-            
-            // Save updated task
-            Task updatedTask = taskRepository.update(task);
+            Task updatedTask = updatedTaskOpt.get();
             
             logger.info("Task updated successfully: {} for user: {}", taskId, userId);
             
-            return LambdaUtils.createSuccessResponse(updatedTask, "Task updated successfully");
+            return LambdaUtils.createSuccessResponse(updatedTask, "Task updated successfully", 
+                    LambdaUtils.versionHeaders(updatedTask.getVersion()));
             
         } catch (Exception e) {
             logger.error("Failed to update task: {}", e.getMessage(), e);
             
-            if (e.getMessage().contains("Validation failed")) {
+            if (e.getMessage().contains("Validation failed") || e.getMessage().contains("Invalid If-Match")) {
                 return LambdaUtils.createErrorResponse(e.getMessage(), 400);
+            } else if (e.getMessage().contains("Version conflict")) {
+                return LambdaUtils.createErrorResponse("Task was modified by another request", 412);
             } else {
                 return LambdaUtils.createErrorResponse("Failed to update task", 500);
             }
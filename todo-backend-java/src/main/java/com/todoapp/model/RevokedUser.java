@@ -0,0 +1,69 @@
+package com.todoapp.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Revoked user entity for DynamoDB; tokens of these users must not be trusted statelessly
+ */
+@DynamoDbBean
+public class RevokedUser {
+    
+    private String userId;
+    private Instant revokedAt;
+
+    public RevokedUser() {
+        this.revokedAt = Instant.now();
+    }
+
+    public RevokedUser(String userId) {
+        this();
+        this.userId = userId;
+    }
+
+    @DynamoDbPartitionKey
+    @DynamoDbAttribute("userId")
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    @DynamoDbAttribute("revokedAt")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RevokedUser that = (RevokedUser) o;
+        return Objects.equals(userId, that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId);
+    }
+
+    @Override
+    public String toString() {
+        return "RevokedUser{" +
+                "userId='" + userId + '\'' +
+                ", revokedAt=" + revokedAt +
+                '}';
+    }
+}
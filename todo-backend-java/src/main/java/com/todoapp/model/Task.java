@@ -1,16 +1,20 @@
 package com.todoapp.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import software.amazon.awssdk.enhanced.dynamodb.extensions.annotations.DynamoDbVersionAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -19,6 +23,25 @@ import java.util.Objects;
 @DynamoDbBean
 public class Task {
     
+    /**
+     * Fields clients may select with fields=, by JSON name, mapped to their DynamoDB attribute
+     */
+    public static final Map<String, String> SELECTABLE_FIELDS = Map.ofEntries(
+            Map.entry("taskId", "taskId"),
+            Map.entry("userId", "userId"),
+            Map.entry("title", "title"),
+            Map.entry("description", "description"),
+            Map.entry("status", "status"),
+            Map.entry("priority", "priority"),
+            Map.entry("dueDate", "dueDate"),
+            Map.entry("reminderType", "reminderType"),
+            Map.entry("reminderTime", "reminderTime"),
+            Map.entry("reminderSent", "isReminderSent"),
+            Map.entry("phoneNumber", "phoneNumber"),
+            Map.entry("createdAt", "createdAt"),
+            Map.entry("updatedAt", "updatedAt"),
+            Map.entry("version", "version"));
+    
     private String taskId;
     private String userId;
     private String title;
@@ -33,6 +56,7 @@ public class Task {
     private Instant createdAt;
     private Instant updatedAt;
     private boolean isDeleted;
+    private Long version; // Optimistic locking, incremented on every write
 
     public Task() {
         this.createdAt = Instant.now();
@@ -52,6 +76,7 @@ public class Task {
     }
 
     @DynamoDbPartitionKey
+    @DynamoDbSecondaryPartitionKey(indexNames = "DueDateIndex")
     @DynamoDbAttribute("userId")
     public String getUserId() {
         return userId;
@@ -185,16 +210,51 @@ public class Task {
         isDeleted = deleted;
     }
 
+    @DynamoDbVersionAttribute
+    @DynamoDbAttribute("version")
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @DynamoDbSecondaryPartitionKey(indexNames = "StatusIndex")
     @DynamoDbAttribute("statusIndex")
     public String getStatusIndex() {
-        return userId + "#" + status.name();
+        return statusIndexKey(userId, status);
     }
 
     public void setStatusIndex(String statusIndex) {
         // This is computed, so we don't need to set it manually
     }
 
+    /**
+     * Sort key for the sparse DueDateIndex. Only open tasks with a due date
+     * carry it, so completed and deleted tasks never enter the index.
+     */
+    @DynamoDbSecondarySortKey(indexNames = "DueDateIndex")
+    @DynamoDbAttribute("openDueDate")
+    @JsonIgnore
+    public String getOpenDueDate() {
+        if (dueDate == null || isDeleted || status == TaskStatus.COMPLETED) {
+            return null;
+        }
+        return dueDate.toString();
+    }
+
+    public void setOpenDueDate(String openDueDate) {
+        // This is computed, so we don't need to set it manually
+    }
+
+    /**
+     * Build the StatusIndex partition key for a user and status
+     */
+    public static String statusIndexKey(String userId, TaskStatus status) {
+        return userId + "#" + status.name();
+    }
+
     public void updateTimestamp() {
         this.updatedAt = Instant.now();
     }
@@ -244,6 +304,7 @@ public class Task {
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 ", isDeleted=" + isDeleted +
+                ", version=" + version +
                 '}';
     }
 
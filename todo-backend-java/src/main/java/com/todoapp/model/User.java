@@ -1,6 +1,7 @@
 package com.todoapp.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import software.amazon.awssdk.enhanced.dynamodb.extensions.annotations.DynamoDbVersionAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
@@ -24,7 +25,9 @@ public class User {
     private String lastName;
     private Instant createdAt;
     private Instant updatedAt;
+    private Instant lastLoginAt; // Written behind by narrow updates, outside the version check
     private boolean isActive;
+    private Long version; // Optimistic locking, incremented on every write
 
     public User() {
         this.createdAt = Instant.now();
@@ -113,6 +116,16 @@ public class User {
         this.updatedAt = updatedAt;
     }
 
+    @DynamoDbAttribute("lastLoginAt")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
+    public Instant getLastLoginAt() {
+        return lastLoginAt;
+    }
+
+    public void setLastLoginAt(Instant lastLoginAt) {
+        this.lastLoginAt = lastLoginAt;
+    }
+
     @DynamoDbAttribute("isActive")
     public boolean isActive() {
         return isActive;
@@ -122,6 +135,16 @@ public class User {
         isActive = active;
     }
 
+    @DynamoDbVersionAttribute
+    @DynamoDbAttribute("version")
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public void updateTimestamp() {
         this.updatedAt = Instant.now();
     }
@@ -148,7 +171,9 @@ public class User {
                 ", lastName='" + lastName + '\'' +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", lastLoginAt=" + lastLoginAt +
                 ", isActive=" + isActive +
+                ", version=" + version +
                 '}';
     }
 }
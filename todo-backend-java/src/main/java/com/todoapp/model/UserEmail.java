@@ -0,0 +1,89 @@
+package com.todoapp.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Email-to-userId lookup entity for DynamoDB
+ */
+@DynamoDbBean
+public class UserEmail {
+    
+    private String email;
+    private String userId;
+    private Instant createdAt;
+
+    public UserEmail() {
+        this.createdAt = Instant.now();
+    }
+
+    public UserEmail(String email, String userId) {
+        this();
+        this.email = normalize(email);
+        this.userId = userId;
+    }
+
+    @DynamoDbPartitionKey
+    @DynamoDbAttribute("email")
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    @DynamoDbAttribute("userId")
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    @DynamoDbAttribute("createdAt")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Normalize an email address into its lookup key
+     */
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserEmail that = (UserEmail) o;
+        return Objects.equals(email, that.email);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(email);
+    }
+
+    @Override
+    public String toString() {
+        return "UserEmail{" +
+                "email='" + email + '\'' +
+                ", userId='" + userId + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,101 @@
+package com.todoapp.model;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+import java.util.Objects;
+
+/**
+ * Materialized task counters for one user, kept in step with task writes by atomic ADDs
+ */
+@DynamoDbBean
+public class UserTaskStats {
+
+    private String userId;
+    private Long totalTasks;
+    private Long pendingTasks;
+    private Long inProgressTasks;
+    private Long completedTasks;
+
+    public UserTaskStats() {
+    }
+
+    public UserTaskStats(String userId, long totalTasks, long pendingTasks, long inProgressTasks, long completedTasks) {
+        this.userId = userId;
+        this.totalTasks = totalTasks;
+        this.pendingTasks = pendingTasks;
+        this.inProgressTasks = inProgressTasks;
+        this.completedTasks = completedTasks;
+    }
+
+    @DynamoDbPartitionKey
+    @DynamoDbAttribute("userId")
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    @DynamoDbAttribute("totalTasks")
+    public Long getTotalTasks() {
+        return totalTasks;
+    }
+
+    public void setTotalTasks(Long totalTasks) {
+        this.totalTasks = totalTasks;
+    }
+
+    @DynamoDbAttribute("pendingTasks")
+    public Long getPendingTasks() {
+        return pendingTasks;
+    }
+
+    public void setPendingTasks(Long pendingTasks) {
+        this.pendingTasks = pendingTasks;
+    }
+
+    @DynamoDbAttribute("inProgressTasks")
+    public Long getInProgressTasks() {
+        return inProgressTasks;
+    }
+
+    public void setInProgressTasks(Long inProgressTasks) {
+        this.inProgressTasks = inProgressTasks;
+    }
+
+    @DynamoDbAttribute("completedTasks")
+    public Long getCompletedTasks() {
+        return completedTasks;
+    }
+
+    public void setCompletedTasks(Long completedTasks) {
+        this.completedTasks = completedTasks;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserTaskStats that = (UserTaskStats) o;
+        return Objects.equals(userId, that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId);
+    }
+
+    @Override
+    public String toString() {
+        return "UserTaskStats{" +
+                "userId='" + userId + '\'' +
+                ", totalTasks=" + totalTasks +
+                ", pendingTasks=" + pendingTasks +
+                ", inProgressTasks=" + inProgressTasks +
+                ", completedTasks=" + completedTasks +
+                '}';
+    }
+}
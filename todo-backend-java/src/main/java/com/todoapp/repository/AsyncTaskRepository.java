@@ -0,0 +1,251 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.UserTaskStats;
+import com.todoapp.repository.TaskRepository.TaskPage;
+import com.todoapp.repository.TaskRepository.TaskStats;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking read repository for the task list, on the enhanced async
+ * client, so a page and the user's stats can be read concurrently. Only the
+ * reads that benefit live here; everything else is on {@link TaskRepository}.
+ * Failures complete the future with the same messages as the sync repository.
+ */
+public class AsyncTaskRepository {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTaskRepository.class);
+    private static final String TABLE_NAME = "Tasks";
+
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    private final DynamoDbAsyncTable<Task> taskTable;
+    private final DynamoDbAsyncTable<UserTaskStats> statsTable;
+    private final TaskCache taskCache;
+
+    private final TaskIndexes taskIndexes = new TaskIndexes();
+
+    public AsyncTaskRepository(DynamoDbEnhancedAsyncClient enhancedAsyncClient, DynamoDbAsyncClient dynamoDbAsyncClient) {
+        this(enhancedAsyncClient, dynamoDbAsyncClient, new TaskCache(0, 0));
+    }
+
+    public AsyncTaskRepository(DynamoDbEnhancedAsyncClient enhancedAsyncClient, DynamoDbAsyncClient dynamoDbAsyncClient,
+                               TaskCache taskCache) {
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.taskCache = taskCache;
+        this.taskTable = enhancedAsyncClient.table(TABLE_NAME, TableSchema.fromBean(Task.class));
+        this.statsTable = enhancedAsyncClient.table(TaskStatsDelta.TABLE_NAME, TableSchema.fromBean(UserTaskStats.class));
+    }
+
+    /**
+     * Find one page of tasks matching every criterion of the filter. The
+     * query is planned by {@link TaskQueryPlan}, and the returned page
+     * carries a description of the query that actually ran.
+     */
+    public CompletableFuture<TaskPage> findMatching(String userId, TaskFilter filter, int limit, String cursor,
+            Set<String> fields) {
+        TaskQueryPlan plan = TaskQueryPlan.of(userId, filter);
+        Map<String, AttributeValue> startKey = TaskQueries.decodeCursor(userId, cursor, plan);
+        List<String> projection = TaskQueries.projection(fields);
+        logger.info("Finding page of tasks for user: {} matching {}", userId, filter);
+        
+        Supplier<CompletableFuture<TaskPage>> tableQuery = () -> queryPage(null, plan.tableQuery(), limit,
+                plan.getIndexName() != null ? TaskQueries.baseTableKey(startKey) : startKey, projection)
+                .thenApply(page -> page.withQueryPlan(plan.describeTableQuery()));
+        
+        // A cursor from the base-table fallback continues on the base table
+        boolean tableCursor = startKey != null && TaskQueryPlan.isTableStartKey(startKey);
+        return cached(userId, pageKey(filter.toString(), limit, cursor, fields),
+                () -> plan.getIndexName() == null || tableCursor
+                        ? tableQuery.get()
+                        : this.<TaskPage>withIndex(plan.getIndexName(),
+                                () -> queryPage(plan.getIndexName(), plan.indexQuery(), limit, startKey, projection)
+                                        .thenApply(page -> page.withQueryPlan(plan.describeIndexQuery())),
+                                tableQuery))
+                .exceptionally(fail("Failed to find matching tasks", userId));
+    }
+
+    /**
+     * Get task statistics for a user from the materialized counters, with the
+     * overdue count read concurrently from the DueDateIndex. Users without a
+     * stats item yet get one seeded from their tasks, as in
+     * {@link TaskRepository#getTaskStats}; the overdue count is used either way.
+     */
+    public CompletableFuture<TaskStats> getTaskStats(String userId) {
+        logger.info("Getting task statistics for user: {}", userId);
+        
+        return cached(userId, "stats", () -> {
+                    CompletableFuture<Long> overdueCount = countOverdue(userId);
+                    return statsTable.getItem(Key.builder().partitionValue(userId).build())
+                            .thenCompose(counters -> counters != null
+                                    ? CompletableFuture.completedFuture(counters)
+                                    : seedStats(userId))
+                            .thenCombine(overdueCount, TaskStats::fromCounters);
+                })
+                .exceptionally(fail("Failed to get task statistics", userId));
+    }
+
+    /**
+     * Count a user's tasks into a new stats item. If another writer seeded it
+     * first, that item is read back and returned instead.
+     */
+    private CompletableFuture<UserTaskStats> seedStats(String userId) {
+        return queryAll(TaskQueries.userQuery(userId, TaskQueries.notDeletedFilter()).consistentRead(true))
+                .thenCompose(tasks -> {
+                    UserTaskStats counters = TaskStats.countersFor(userId, tasks);
+                    return statsTable.putItem(TaskStatsDelta.seedRequest(counters, false))
+                            .<CompletableFuture<UserTaskStats>>handle((ignored, error) -> {
+                                if (error == null) {
+                                    return CompletableFuture.completedFuture(counters);
+                                }
+                                if (!(unwrap(error) instanceof ConditionalCheckFailedException)) {
+                                    return CompletableFuture.failedFuture(unwrap(error));
+                                }
+                                return statsTable.getItem(request -> request
+                                        .key(Key.builder().partitionValue(userId).build())
+                                        .consistentRead(true));
+                            })
+                            .thenCompose(Function.identity());
+                });
+    }
+
+    private CompletableFuture<Long> countOverdue(String userId) {
+        return this.<Long>withIndex(TaskQueries.DUE_DATE_INDEX,
+                () -> count(TaskQueries.overdueIndexCountQuery(taskTable.tableName(), userId)),
+                () -> count(TaskQueries.userCountQuery(taskTable.tableName(), userId, TaskQueries.overdueFilter())));
+    }
+
+    /**
+     * Serve a read from the task cache, loading and caching it on a miss
+     */
+    private <T> CompletableFuture<T> cached(String userId, String query, Supplier<CompletableFuture<T>> loader) {
+        T cached = taskCache.get(userId, query);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return loader.get().thenApply(result -> {
+            taskCache.put(userId, query, result);
+            return result;
+        });
+    }
+
+    private static String pageKey(String filter, int limit, String cursor, Set<String> fields) {
+        return "page:" + filter + ":" + limit + ":" + cursor + ":" + fields;
+    }
+
+    /**
+     * Run a query against a secondary index, falling back to the base table
+     * when the index does not exist in this environment
+     */
+    private <T> CompletableFuture<T> withIndex(String indexName, Supplier<CompletableFuture<T>> indexQuery,
+                                               Supplier<CompletableFuture<T>> tableQuery) {
+        if (!taskIndexes.isAvailable(indexName)) {
+            return tableQuery.get();
+        }
+        
+        return indexQuery.get()
+                .handle((result, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    Throwable cause = unwrap(error);
+                    if (!taskIndexes.markIfMissing(indexName, cause)) {
+                        return CompletableFuture.<T>failedFuture(cause);
+                    }
+                    return tableQuery.get();
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Run a query against the base table or one of its indexes
+     */
+    private SdkPublisher<Page<Task>> query(String indexName, QueryEnhancedRequest queryRequest) {
+        if (indexName == null) {
+            return taskTable.query(queryRequest);
+        }
+        return taskTable.index(indexName).query(queryRequest);
+    }
+
+    /**
+     * Run a count-only query to completion, summing Count over every page
+     */
+    private CompletableFuture<Long> count(QueryRequest.Builder queryRequest) {
+        AtomicLong count = new AtomicLong();
+        return dynamoDbAsyncClient.queryPaginator(queryRequest.build())
+                .subscribe(page -> count.addAndGet(page.count()))
+                .thenApply(done -> count.get());
+    }
+
+    /**
+     * Run a base-table query to completion, following every page
+     */
+    private CompletableFuture<List<Task>> queryAll(QueryEnhancedRequest.Builder queryRequest) {
+        List<Task> tasks = Collections.synchronizedList(new ArrayList<>());
+        return taskTable.query(queryRequest.build())
+                .subscribe(page -> tasks.addAll(page.items()))
+                .thenApply(done -> new ArrayList<>(tasks));
+    }
+
+    /**
+     * Run a single bounded query page. DynamoDB applies the limit before the
+     * filter expression, so a page may hold fewer than {@code limit} tasks
+     * even when more remain; callers should rely on the cursor, not the size.
+     */
+    private CompletableFuture<TaskPage> queryPage(String indexName, QueryEnhancedRequest.Builder queryRequest, int limit,
+                                                  Map<String, AttributeValue> exclusiveStartKey, List<String> projection) {
+        queryRequest.limit(Math.max(1, Math.min(limit, TaskRepository.MAX_PAGE_SIZE)));
+        if (exclusiveStartKey != null) {
+            queryRequest.exclusiveStartKey(exclusiveStartKey);
+        }
+        if (projection != null) {
+            queryRequest.attributesToProject(projection);
+        }
+        
+        List<TaskPage> firstPage = new ArrayList<>(1);
+        return query(indexName, queryRequest.build())
+                .limit(1)
+                .subscribe(page -> firstPage.add(new TaskPage(page.items(),
+                        TaskQueries.encodeCursor(page.lastEvaluatedKey()))))
+                .thenApply(done -> firstPage.isEmpty()
+                        ? new TaskPage(Collections.emptyList(), null)
+                        : firstPage.get(0));
+    }
+
+    /**
+     * Log a failed read and rethrow it wrapped with the given message
+     */
+    private static <T> Function<Throwable, T> fail(String message, String userId) {
+        return error -> {
+            Throwable cause = unwrap(error);
+            logger.error("{} for user {}: {}", message, userId, cause.getMessage(), cause);
+            throw new CompletionException(new RuntimeException(message, cause));
+        };
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
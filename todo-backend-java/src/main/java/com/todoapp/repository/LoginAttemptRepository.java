@@ -0,0 +1,53 @@
+package com.todoapp.repository;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * Failed-login counters shared across containers, one item per throttle key
+ * and fixed window. Items carry an expiresAt TTL so old windows age out.
+ */
+public class LoginAttemptRepository {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptRepository.class);
+    private static final String TABLE_NAME = "LoginAttempts";
+
+    private final DynamoDbClient dynamoDbClient;
+
+    public LoginAttemptRepository(DynamoDbClient dynamoDbClient) {
+        this.dynamoDbClient = dynamoDbClient;
+    }
+
+    /**
+     * Count one failed attempt in the window unless the window already holds
+     * {@code limit} attempts, with a single conditional UpdateItem.
+     *
+     * @return false if the key is already at its limit for this window
+     */
+    public boolean incrementIfBelow(String throttleKey, long windowStartMillis, int limit, long expiresAtEpochSeconds) {
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(Map.of("attemptKey", AttributeValue.builder().s(throttleKey + "#" + windowStartMillis).build()))
+                    .updateExpression("ADD attempts :one SET expiresAt = :expiresAt")
+                    .conditionExpression("attribute_not_exists(attempts) OR attempts < :limit")
+                    .expressionAttributeValues(Map.of(
+                            ":one", AttributeValue.builder().n("1").build(),
+                            ":limit", AttributeValue.builder().n(Integer.toString(limit)).build(),
+                            ":expiresAt", AttributeValue.builder().n(Long.toString(expiresAtEpochSeconds)).build()))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        } catch (Exception e) {
+            logger.error("Error recording login attempt for {}: {}", throttleKey, e.getMessage(), e);
+            throw new RuntimeException("Failed to record login attempt", e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.todoapp.repository;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Segmented parallel scan over any repository table. The table is split into
+ * N scan segments that run concurrently on a bounded worker pool, each paced
+ * to a maximum page rate, and items are streamed to a consumer as pages arrive.
+ */
+public class ParallelScanner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ParallelScanner.class);
+
+    private static final int DEFAULT_TOTAL_SEGMENTS = 8;
+    private static final int DEFAULT_MAX_WORKERS = 4;
+
+    private final int totalSegments;
+    private final long minPageIntervalNanos;
+    private final ExecutorService workers;
+
+    /**
+     * Configure from SCAN_TOTAL_SEGMENTS, SCAN_MAX_WORKERS and
+     * SCAN_PAGES_PER_SECOND (per segment; unset or 0 means unlimited)
+     */
+    public ParallelScanner() {
+        this(intFromEnv("SCAN_TOTAL_SEGMENTS", DEFAULT_TOTAL_SEGMENTS),
+             intFromEnv("SCAN_MAX_WORKERS", DEFAULT_MAX_WORKERS),
+             doubleFromEnv("SCAN_PAGES_PER_SECOND", 0));
+    }
+
+    public ParallelScanner(int totalSegments, int maxWorkers, double pagesPerSecondPerSegment) {
+        if (totalSegments < 1 || maxWorkers < 1) {
+            throw new IllegalArgumentException("Segments and workers must be at least 1");
+        }
+        this.totalSegments = totalSegments;
+        this.minPageIntervalNanos = pagesPerSecondPerSegment > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) / pagesPerSecondPerSegment) : 0;
+        // Daemon threads so an idle scanner never holds the JVM open
+        this.workers = Executors.newFixedThreadPool(Math.min(maxWorkers, totalSegments), runnable -> {
+            Thread thread = new Thread(runnable, "parallel-scan");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Scan the whole table, passing every item to the consumer. The consumer
+     * is called from several worker threads at once and must be thread-safe.
+     * If any segment fails, the remaining segments stop at their next page.
+     *
+     * @param scanRequest filter, projection and page size applied to every segment
+     * @return number of items passed to the consumer
+     */
+    public <T> long scan(DynamoDbTable<T> table, ScanEnhancedRequest scanRequest, Consumer<? super T> consumer) {
+        AtomicLong itemCount = new AtomicLong();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        long startNanos = System.nanoTime();
+        
+        List<CompletableFuture<Void>> segmentScans = new ArrayList<>();
+        for (int segment = 0; segment < totalSegments; segment++) {
+            ScanEnhancedRequest segmentRequest = scanRequest.toBuilder()
+                    .segment(segment)
+                    .totalSegments(totalSegments)
+                    .build();
+            segmentScans.add(CompletableFuture.runAsync(
+                    () -> scanSegment(table, segmentRequest, consumer, itemCount, cancelled), workers));
+        }
+        
+        try {
+            CompletableFuture.allOf(segmentScans.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            cancelled.set(true);
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.error("Parallel scan of {} failed: {}", table.tableName(), cause.getMessage(), cause);
+            throw new RuntimeException("Failed to scan " + table.tableName(), cause);
+        }
+        
+        logger.info("Parallel scan of {} read {} items over {} segments in {} ms", table.tableName(), itemCount.get(),
+                totalSegments, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return itemCount.get();
+    }
+
+    private <T> void scanSegment(DynamoDbTable<T> table, ScanEnhancedRequest segmentRequest,
+                                 Consumer<? super T> consumer, AtomicLong itemCount, AtomicBoolean cancelled) {
+        try {
+            Iterator<Page<T>> pages = table.scan(segmentRequest).iterator();
+            long nextPageNanos = System.nanoTime();
+            
+            while (!cancelled.get()) {
+                pace(nextPageNanos);
+                nextPageNanos = System.nanoTime() + minPageIntervalNanos;
+                
+                if (!pages.hasNext()) {
+                    return;
+                }
+                for (T item : pages.next().items()) {
+                    consumer.accept(item);
+                    itemCount.incrementAndGet();
+                }
+            }
+        } catch (RuntimeException e) {
+            // Stop the other segments rather than letting them run to completion
+            cancelled.set(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Wait until the segment may request its next page
+     */
+    private void pace(long nextPageNanos) {
+        long waitNanos = nextPageNanos - System.nanoTime();
+        if (minPageIntervalNanos == 0 || waitNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while scanning", e);
+        }
+    }
+
+    private static int intFromEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static double doubleFromEnv(String name, double defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Double.parseDouble(value.trim());
+    }
+}
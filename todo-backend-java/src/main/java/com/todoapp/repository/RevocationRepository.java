@@ -0,0 +1,58 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.RevokedUser;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Consumer;
+
+/**
+ * Repository for the set of revoked users with DynamoDB
+ */
+public class RevocationRepository {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RevocationRepository.class);
+    private static final String TABLE_NAME = "RevokedUsers";
+
+    private final DynamoDbTable<RevokedUser> revokedUserTable;
+    private final ParallelScanner parallelScanner;
+
+    public RevocationRepository(DynamoDbEnhancedClient enhancedClient, ParallelScanner parallelScanner) {
+        this.revokedUserTable = enhancedClient.table(TABLE_NAME, TableSchema.fromBean(RevokedUser.class));
+        this.parallelScanner = parallelScanner;
+    }
+
+    /**
+     * Add a user to the revocation set
+     */
+    public void revoke(String userId) {
+        try {
+            logger.info("Revoking user: {}", userId);
+            revokedUserTable.putItem(new RevokedUser(userId));
+        } catch (Exception e) {
+            logger.error("Error revoking user {}: {}", userId, e.getMessage(), e);
+            throw new RuntimeException("Failed to revoke user", e);
+        }
+    }
+
+    /**
+     * Stream every revoked user ID to a thread-safe consumer
+     *
+     * @return number of revoked users
+     */
+    public long forEachRevokedUserId(Consumer<String> consumer) {
+        try {
+            ScanEnhancedRequest scanRequest = ScanEnhancedRequest.builder()
+                    .addAttributeToProject("userId")
+                    .build();
+            return parallelScanner.scan(revokedUserTable, scanRequest, revokedUser -> consumer.accept(revokedUser.getUserId()));
+        } catch (Exception e) {
+            logger.error("Error reading revoked users: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to read revoked users", e);
+        }
+    }
+}
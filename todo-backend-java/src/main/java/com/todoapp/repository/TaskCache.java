@@ -0,0 +1,109 @@
+package com.todoapp.repository;
+
+import com.todoapp.util.TtlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process cache of task list and statistics reads, keyed by user plus
+ * query, shared by the sync and async task repositories. Writes through those
+ * repositories invalidate the user's entries in this container only. Each
+ * handler is its own Lambda function, so a write served elsewhere is seen
+ * after at most the TTL; caching is therefore off unless
+ * TASK_CACHE_TTL_MILLIS opts in to that staleness (the list-tasks function
+ * does, see the infrastructure templates). While enabled, hit and miss
+ * counts are logged at most once per stats interval.
+ */
+public class TaskCache {
+    
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+    private static final long DEFAULT_TTL_MILLIS = 0;
+    private static final long STATS_INTERVAL_MILLIS = 60000;
+    private static final String KEY_SEPARATOR = "\u0000";
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskCache.class);
+
+    private final TtlCache<String, Object> cache;
+    private final boolean enabled;
+    private final AtomicLong statsLoggedAt = new AtomicLong(System.nanoTime());
+
+    /**
+     * Configure from TASK_CACHE_MAX_ENTRIES and TASK_CACHE_TTL_MILLIS (0 disables caching)
+     */
+    public TaskCache() {
+        this(intFromEnv("TASK_CACHE_MAX_ENTRIES", DEFAULT_MAX_ENTRIES),
+             intFromEnv("TASK_CACHE_TTL_MILLIS", (int) DEFAULT_TTL_MILLIS));
+    }
+
+    public TaskCache(int maxEntries, long ttlMillis) {
+        this.cache = new TtlCache<>(maxEntries, ttlMillis);
+        this.enabled = maxEntries > 0 && ttlMillis > 0;
+        if (enabled) {
+            logger.info("Task cache enabled: {} entries, TTL {} ms", maxEntries, ttlMillis);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get a cached result for a user's query, or null on a miss
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String userId, String query) {
+        if (!enabled) {
+            return null;
+        }
+        T cached = (T) cache.get(key(userId, query));
+        logStatsIfDue();
+        return cached;
+    }
+
+    void put(String userId, String query, Object value) {
+        cache.put(key(userId, query), value);
+    }
+
+    /**
+     * Drop every cached result for a user after one of their tasks changed
+     */
+    void invalidate(String userId) {
+        String prefix = userId + KEY_SEPARATOR;
+        cache.invalidateIf(key -> key.startsWith(prefix));
+    }
+
+    public long getHits() { return cache.getHits(); }
+    public long getMisses() { return cache.getMisses(); }
+    public long getEvictions() { return cache.getEvictions(); }
+    public int size() { return cache.size(); }
+
+    @Override
+    public String toString() {
+        return cache.toString();
+    }
+
+    /**
+     * Log the hit and miss counts if the stats interval has passed. Driven by
+     * reads rather than a timer, which would not run in a frozen container.
+     */
+    private void logStatsIfDue() {
+        long now = System.nanoTime();
+        long last = statsLoggedAt.get();
+        if (now - last >= TimeUnit.MILLISECONDS.toNanos(STATS_INTERVAL_MILLIS)
+                && statsLoggedAt.compareAndSet(last, now)) {
+            logger.info("Task cache stats: {}", cache);
+        }
+    }
+
+    private static String key(String userId, String query) {
+        return userId + KEY_SEPARATOR + query;
+    }
+
+    private static int intFromEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+    }
+}
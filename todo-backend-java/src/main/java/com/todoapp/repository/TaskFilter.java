@@ -0,0 +1,93 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task.TaskPriority;
+import com.todoapp.model.Task.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Criteria for listing tasks. Every criterion is optional and they combine
+ * with AND; statuses and priorities match any of the given values. A due
+ * range (either bound inclusive, either may be open) selects open tasks
+ * only, like the other due-date queries. Text matches a substring of the
+ * title or description, case-sensitively as DynamoDB's contains() does.
+ */
+public class TaskFilter {
+
+    private final Set<TaskStatus> statuses = EnumSet.noneOf(TaskStatus.class);
+    private final Set<TaskPriority> priorities = EnumSet.noneOf(TaskPriority.class);
+    private LocalDate dueFrom;
+    private LocalDate dueTo;
+    private String text;
+
+    public Set<TaskStatus> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(Collection<TaskStatus> statuses) {
+        this.statuses.clear();
+        this.statuses.addAll(statuses);
+    }
+
+    public Set<TaskPriority> getPriorities() {
+        return priorities;
+    }
+
+    public void setPriorities(Collection<TaskPriority> priorities) {
+        this.priorities.clear();
+        this.priorities.addAll(priorities);
+    }
+
+    public LocalDate getDueFrom() {
+        return dueFrom;
+    }
+
+    public void setDueFrom(LocalDate dueFrom) {
+        this.dueFrom = dueFrom;
+    }
+
+    public LocalDate getDueTo() {
+        return dueTo;
+    }
+
+    public void setDueTo(LocalDate dueTo) {
+        this.dueTo = dueTo;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public boolean hasDueRange() {
+        return dueFrom != null || dueTo != null;
+    }
+
+    public boolean hasText() {
+        return text != null && !text.isEmpty();
+    }
+
+    /**
+     * Whether no criterion is set, i.e. every task matches
+     */
+    public boolean isEmpty() {
+        return statuses.isEmpty() && priorities.isEmpty() && !hasDueRange() && !hasText();
+    }
+
+    @Override
+    public String toString() {
+        return "TaskFilter{" +
+                "statuses=" + statuses +
+                ", priorities=" + priorities +
+                ", dueFrom=" + dueFrom +
+                ", dueTo=" + dueTo +
+                ", text='" + text + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package com.todoapp.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which secondary indexes of the Tasks table a repository may query. Indexes
+ * that are missing in this environment, or not yet backfilled, are served
+ * from the base table instead; shared by the sync and async task repositories.
+ */
+final class TaskIndexes {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskIndexes.class);
+
+    private final Set<String> unavailableIndexes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Tasks written before the DueDateIndex existed carry no openDueDate until
+     * BackfillOpenDueDatesHandler has run to completion, so until
+     * DUE_DATE_INDEX_READY is true due-date reads use the base table.
+     */
+    TaskIndexes() {
+        this("true".equalsIgnoreCase(System.getenv("DUE_DATE_INDEX_READY")));
+    }
+
+    TaskIndexes(boolean dueDateIndexReady) {
+        if (!dueDateIndexReady) {
+            unavailableIndexes.add(TaskQueries.DUE_DATE_INDEX);
+        }
+    }
+
+    boolean isAvailable(String indexName) {
+        return !unavailableIndexes.contains(indexName);
+    }
+
+    /**
+     * Record that an index query failed because the index does not exist.
+     * Returns false, leaving the index available, for any other failure.
+     */
+    boolean markIfMissing(String indexName, Throwable failure) {
+        if (!(failure instanceof DynamoDbException) || !isMissingIndex((DynamoDbException) failure)) {
+            return false;
+        }
+        unavailableIndexes.add(indexName);
+        logger.warn("{} is unavailable, falling back to base table queries: {}", indexName, failure.getMessage());
+        return true;
+    }
+
+    private static boolean isMissingIndex(DynamoDbException e) {
+        String message = e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage();
+        return message != null && message.contains("specified index");
+    }
+}
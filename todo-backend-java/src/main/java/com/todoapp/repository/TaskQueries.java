@@ -0,0 +1,222 @@
+package com.todoapp.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.model.Task;
+import com.todoapp.model.Task.TaskStatus;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Query builders, filters and cursor encoding shared by the sync and async task repositories
+ */
+final class TaskQueries {
+    
+    static final String STATUS_INDEX = "StatusIndex";
+    static final String DUE_DATE_INDEX = "DueDateIndex";
+    
+    private static final ObjectMapper cursorMapper = new ObjectMapper();
+
+    private TaskQueries() {
+    }
+
+    /**
+     * Build a query over a user's partition with the given filter
+     */
+    static QueryEnhancedRequest.Builder userQuery(String userId, Expression filterExpression) {
+        QueryConditional queryConditional = QueryConditional.keyEqualTo(Key.builder()
+                .partitionValue(userId)
+                .build());
+        
+        return QueryEnhancedRequest.builder()
+                .queryConditional(queryConditional)
+                .filterExpression(filterExpression);
+    }
+
+    /**
+     * Build a count-only query over a user's partition with the given filter
+     */
+    static QueryRequest.Builder userCountQuery(String tableName, String userId, Expression filterExpression) {
+        Map<String, AttributeValue> values = new HashMap<>(filterExpression.expressionValues());
+        values.put(":userId", AttributeValue.builder().s(userId).build());
+        
+        QueryRequest.Builder queryRequest = countQuery(tableName, null)
+                .keyConditionExpression("userId = :userId")
+                .filterExpression(filterExpression.expression())
+                .expressionAttributeValues(values);
+        if (filterExpression.expressionNames() != null && !filterExpression.expressionNames().isEmpty()) {
+            queryRequest.expressionAttributeNames(filterExpression.expressionNames());
+        }
+        return queryRequest;
+    }
+
+    /**
+     * Build a count-only query over the StatusIndex partition for a user and status
+     */
+    static QueryRequest.Builder statusIndexCountQuery(String tableName, String userId, TaskStatus status) {
+        return countQuery(tableName, STATUS_INDEX)
+                .keyConditionExpression("statusIndex = :statusIndex")
+                .filterExpression("isDeleted = :deleted")
+                .expressionAttributeValues(Map.of(
+                        ":statusIndex", AttributeValue.builder().s(Task.statusIndexKey(userId, status)).build(),
+                        ":deleted", AttributeValue.builder().bool(false).build()));
+    }
+
+    /**
+     * Build a count-only key-range query over the DueDateIndex for open tasks due before today
+     */
+    static QueryRequest.Builder overdueIndexCountQuery(String tableName, String userId) {
+        return countQuery(tableName, DUE_DATE_INDEX)
+                .keyConditionExpression("userId = :userId AND openDueDate < :today")
+                .expressionAttributeValues(Map.of(
+                        ":userId", AttributeValue.builder().s(userId).build(),
+                        ":today", AttributeValue.builder().s(LocalDate.now().toString()).build()));
+    }
+
+    /**
+     * DynamoDB returns only the number of matching items, so pages are summed
+     * without transferring or deserializing any item
+     */
+    private static QueryRequest.Builder countQuery(String tableName, String indexName) {
+        return QueryRequest.builder()
+                .tableName(tableName)
+                .indexName(indexName)
+                .select(Select.COUNT);
+    }
+
+    /**
+     * Reduce an index ExclusiveStartKey to the base table's primary key
+     */
+    static Map<String, AttributeValue> baseTableKey(Map<String, AttributeValue> startKey) {
+        if (startKey == null) {
+            return null;
+        }
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put("userId", startKey.get("userId"));
+        key.put("taskId", startKey.get("taskId"));
+        return key.containsValue(null) ? null : key;
+    }
+
+    static Expression notDeletedFilter() {
+        return Expression.builder()
+                .expression("isDeleted = :deleted")
+                .putExpressionValue(":deleted", AttributeValue.builder().bool(false).build())
+                .build();
+    }
+
+    static Expression statusFilter(TaskStatus status) {
+        return Expression.builder()
+                .expression("isDeleted = :deleted AND #status = :status")
+                .putExpressionName("#status", "status")
+                .putExpressionValue(":deleted", AttributeValue.builder().bool(false).build())
+                .putExpressionValue(":status", AttributeValue.builder().s(status.name()).build())
+                .build();
+    }
+
+    static Expression overdueFilter() {
+        String today = LocalDate.now().toString();
+        
+        return Expression.builder()
+                .expression("isDeleted = :deleted AND #status <> :completed AND dueDate < :today")
+                .putExpressionName("#status", "status")
+                .putExpressionValue(":deleted", AttributeValue.builder().bool(false).build())
+                .putExpressionValue(":completed", AttributeValue.builder().s(TaskStatus.COMPLETED.name()).build())
+                .putExpressionValue(":today", AttributeValue.builder().s(today).build())
+                .build();
+    }
+
+    /**
+     * Encode DynamoDB's LastEvaluatedKey as an opaque, URL-safe cursor
+     */
+    static String encodeCursor(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        
+        try {
+            Map<String, String> keyValues = new HashMap<>();
+            lastEvaluatedKey.forEach((name, value) -> keyValues.put(name, value.s()));
+            byte[] json = cursorMapper.writeValueAsBytes(keyValues);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to encode pagination cursor", e);
+        }
+    }
+
+    /**
+     * Decode a cursor back into an ExclusiveStartKey, rejecting cursors that
+     * are malformed or were issued for a different user's partition
+     */
+    static Map<String, AttributeValue> decodeCursor(String userId, String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        
+        Map<String, String> keyValues;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor.trim());
+            keyValues = cursorMapper.readValue(new String(json, StandardCharsets.UTF_8), 
+                    new TypeReference<Map<String, String>>() {});
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        
+        if (keyValues == null || !userId.equals(keyValues.get("userId")) || keyValues.values().contains(null)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        
+        Map<String, AttributeValue> startKey = new HashMap<>();
+        keyValues.forEach((name, value) -> startKey.put(name, AttributeValue.builder().s(value).build()));
+        return startKey;
+    }
+
+    /**
+     * Decode a cursor for a planned query. Besides the checks above, the key
+     * must belong to the plan's index query or to its base-table fallback,
+     * so a cursor reused with a different filter is rejected rather than
+     * sent to DynamoDB as an invalid ExclusiveStartKey.
+     */
+    static Map<String, AttributeValue> decodeCursor(String userId, String cursor, TaskQueryPlan plan) {
+        Map<String, AttributeValue> startKey = decodeCursor(userId, cursor);
+        if (startKey != null && !TaskQueryPlan.isTableStartKey(startKey) && !plan.isIndexStartKey(startKey)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return startKey;
+    }
+
+    /**
+     * Map selected JSON fields to the attributes to project, always keeping the
+     * primary key and the deleted flag so results can be keyed and filtered.
+     * Returns null (project everything) when no fields were selected.
+     */
+    static List<String> projection(Set<String> fields) {
+        if (fields == null) {
+            return null;
+        }
+        
+        Set<String> attributes = new LinkedHashSet<>(List.of("userId", "taskId", "isDeleted"));
+        for (String field : fields) {
+            String attribute = Task.SELECTABLE_FIELDS.get(field);
+            if (attribute == null) {
+                throw new IllegalArgumentException("Invalid field: " + field);
+            }
+            attributes.add(attribute);
+        }
+        return new ArrayList<>(attributes);
+    }
+}
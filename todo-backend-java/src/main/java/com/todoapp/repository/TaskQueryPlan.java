@@ -0,0 +1,254 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.Task.TaskPriority;
+import com.todoapp.model.Task.TaskStatus;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Query plan for a {@link TaskFilter}. One criterion becomes the key
+ * condition and the rest are pushed down as a FilterExpression:
+ * <ul>
+ *   <li>a due range with an upper bound is a key range on the DueDateIndex,
+ *       which holds only open tasks with a due date</li>
+ *   <li>otherwise a single status is the StatusIndex partition</li>
+ *   <li>otherwise a due range from a date is a key range on the DueDateIndex</li>
+ *   <li>otherwise the user's partition of the base table is read</li>
+ * </ul>
+ * Several statuses are filtered rather than keyed, since the StatusIndex
+ * holds one partition per status and a page cannot span partitions. Every
+ * plan also carries the equivalent base-table query for environments
+ * without the chosen index.
+ */
+final class TaskQueryPlan {
+
+    private static final Set<String> TABLE_KEY_ATTRIBUTES = Set.of("userId", "taskId");
+    private static final Set<String> STATUS_INDEX_KEY_ATTRIBUTES = Set.of("userId", "taskId", "statusIndex");
+    private static final Set<String> DUE_DATE_INDEX_KEY_ATTRIBUTES = Set.of("userId", "taskId", "openDueDate");
+
+    private final String indexName;
+    private final String statusIndexKey;
+    private final String dueFrom;
+    private final String dueTo;
+    private final QueryConditional indexKey;
+    private final String indexKeyDescription;
+    private final Expression indexFilter;
+    private final QueryConditional tableKey;
+    private final Expression tableFilter;
+
+    private TaskQueryPlan(String userId, TaskFilter filter) {
+        Set<TaskStatus> statuses = filter.getStatuses();
+        this.dueFrom = filter.getDueFrom() != null ? filter.getDueFrom().toString() : null;
+        this.dueTo = filter.getDueTo() != null ? filter.getDueTo().toString() : null;
+        if (filter.getDueTo() != null || (filter.getDueFrom() != null && statuses.size() != 1)) {
+            this.indexName = TaskQueries.DUE_DATE_INDEX;
+            this.statusIndexKey = null;
+            this.indexKey = dueDateKey(userId, filter);
+            this.indexKeyDescription = dueDateKeyDescription(filter);
+            this.indexFilter = filterExpression(filter, false, true);
+        } else if (statuses.size() == 1) {
+            TaskStatus status = statuses.iterator().next();
+            this.indexName = TaskQueries.STATUS_INDEX;
+            this.statusIndexKey = Task.statusIndexKey(userId, status);
+            this.indexKey = QueryConditional.keyEqualTo(Key.builder()
+                    .partitionValue(statusIndexKey)
+                    .build());
+            this.indexKeyDescription = "statusIndex = " + status;
+            this.indexFilter = filterExpression(filter, true, false);
+        } else {
+            this.indexName = null;
+            this.statusIndexKey = null;
+            this.indexKey = null;
+            this.indexKeyDescription = null;
+            this.indexFilter = null;
+        }
+        this.tableKey = QueryConditional.keyEqualTo(Key.builder().partitionValue(userId).build());
+        this.tableFilter = filterExpression(filter, true, true);
+    }
+
+    static TaskQueryPlan of(String userId, TaskFilter filter) {
+        return new TaskQueryPlan(userId, filter);
+    }
+
+    /**
+     * The index the plan reads, or null when it reads the base table
+     */
+    String getIndexName() {
+        return indexName;
+    }
+
+    /**
+     * Whether a start key continues this plan's index query: the index's key
+     * attributes, inside the partition and key range the plan reads. DynamoDB
+     * rejects any other start key as a validation error.
+     */
+    boolean isIndexStartKey(Map<String, AttributeValue> startKey) {
+        if (TaskQueries.STATUS_INDEX.equals(indexName)) {
+            return startKey.keySet().equals(STATUS_INDEX_KEY_ATTRIBUTES)
+                    && statusIndexKey.equals(startKey.get("statusIndex").s());
+        }
+        if (TaskQueries.DUE_DATE_INDEX.equals(indexName)) {
+            String openDueDate = startKey.get("openDueDate") != null ? startKey.get("openDueDate").s() : null;
+            return startKey.keySet().equals(DUE_DATE_INDEX_KEY_ATTRIBUTES) && openDueDate != null
+                    && (dueFrom == null || openDueDate.compareTo(dueFrom) >= 0)
+                    && (dueTo == null || openDueDate.compareTo(dueTo) <= 0);
+        }
+        return false;
+    }
+
+    /**
+     * Whether a start key continues a base-table query, which every plan can
+     * run when its index is unavailable
+     */
+    static boolean isTableStartKey(Map<String, AttributeValue> startKey) {
+        return startKey.keySet().equals(TABLE_KEY_ATTRIBUTES);
+    }
+
+    QueryEnhancedRequest.Builder indexQuery() {
+        return query(indexKey, indexFilter);
+    }
+
+    QueryEnhancedRequest.Builder tableQuery() {
+        return query(tableKey, tableFilter);
+    }
+
+    /**
+     * Human-readable form of the index query, e.g. for a debug header
+     */
+    String describeIndexQuery() {
+        return describe(indexName, indexKeyDescription, indexFilter);
+    }
+
+    /**
+     * Human-readable form of the base-table query
+     */
+    String describeTableQuery() {
+        return describe("Tasks", "userId", tableFilter);
+    }
+
+    private static QueryEnhancedRequest.Builder query(QueryConditional key, Expression filter) {
+        QueryEnhancedRequest.Builder queryRequest = QueryEnhancedRequest.builder().queryConditional(key);
+        if (filter != null) {
+            queryRequest.filterExpression(filter);
+        }
+        return queryRequest;
+    }
+
+    private static String describe(String source, String key, Expression filter) {
+        return source + " key[" + key + "]" + (filter != null ? " filter[" + filter.expression() + "]" : "");
+    }
+
+    private static QueryConditional dueDateKey(String userId, TaskFilter filter) {
+        if (filter.getDueFrom() != null && filter.getDueTo() != null) {
+            return QueryConditional.sortBetween(
+                    Key.builder().partitionValue(userId).sortValue(filter.getDueFrom().toString()).build(),
+                    Key.builder().partitionValue(userId).sortValue(filter.getDueTo().toString()).build());
+        }
+        if (filter.getDueTo() != null) {
+            return QueryConditional.sortLessThanOrEqualTo(
+                    Key.builder().partitionValue(userId).sortValue(filter.getDueTo().toString()).build());
+        }
+        return QueryConditional.sortGreaterThanOrEqualTo(
+                Key.builder().partitionValue(userId).sortValue(filter.getDueFrom().toString()).build());
+    }
+
+    private static String dueDateKeyDescription(TaskFilter filter) {
+        if (filter.getDueFrom() != null && filter.getDueTo() != null) {
+            return "openDueDate BETWEEN " + filter.getDueFrom() + " AND " + filter.getDueTo();
+        }
+        if (filter.getDueTo() != null) {
+            return "openDueDate <= " + filter.getDueTo();
+        }
+        return "openDueDate >= " + filter.getDueFrom();
+    }
+
+    /**
+     * Build the FilterExpression for the criteria the key does not cover.
+     * The DueDateIndex is sparse, so deleted and completed tasks never
+     * reach a filter over it. Returns null when nothing is left to filter.
+     */
+    private static Expression filterExpression(TaskFilter filter, boolean filterDue, boolean filterStatus) {
+        List<String> clauses = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+
+        boolean dueKeyed = filter.hasDueRange() && !filterDue;
+        if (!dueKeyed) {
+            clauses.add("isDeleted = :deleted");
+            values.put(":deleted", AttributeValue.builder().bool(false).build());
+        }
+        if (filterStatus && !filter.getStatuses().isEmpty()) {
+            names.put("#status", "status");
+            clauses.add(inClause("#status", ":status", statusNames(filter.getStatuses()), values));
+        }
+        if (filterDue && filter.hasDueRange()) {
+            names.put("#status", "status");
+            clauses.add("#status <> :completed");
+            values.put(":completed", AttributeValue.builder().s(TaskStatus.COMPLETED.name()).build());
+            if (filter.getDueFrom() != null) {
+                clauses.add("dueDate >= :dueFrom");
+                values.put(":dueFrom", AttributeValue.builder().s(filter.getDueFrom().toString()).build());
+            }
+            if (filter.getDueTo() != null) {
+                clauses.add("dueDate <= :dueTo");
+                values.put(":dueTo", AttributeValue.builder().s(filter.getDueTo().toString()).build());
+            }
+        }
+        if (!filter.getPriorities().isEmpty()) {
+            clauses.add(inClause("priority", ":priority", priorityNames(filter.getPriorities()), values));
+        }
+        if (filter.hasText()) {
+            names.put("#title", "title");
+            names.put("#description", "description");
+            clauses.add("(contains(#title, :text) OR contains(#description, :text))");
+            values.put(":text", AttributeValue.builder().s(filter.getText()).build());
+        }
+
+        if (clauses.isEmpty()) {
+            return null;
+        }
+        return Expression.builder()
+                .expression(String.join(" AND ", clauses))
+                .expressionNames(names.isEmpty() ? null : names)
+                .expressionValues(values)
+                .build();
+    }
+
+    /**
+     * An equality for a single value, otherwise an IN over all of them
+     */
+    private static String inClause(String attribute, String placeholder, List<String> options,
+                                   Map<String, AttributeValue> values) {
+        List<String> placeholders = new ArrayList<>();
+        for (int i = 0; i < options.size(); i++) {
+            placeholders.add(placeholder + i);
+            values.put(placeholder + i, AttributeValue.builder().s(options.get(i)).build());
+        }
+        if (placeholders.size() == 1) {
+            return attribute + " = " + placeholders.get(0);
+        }
+        return attribute + " IN (" + String.join(", ", placeholders) + ")";
+    }
+
+    private static List<String> statusNames(Set<TaskStatus> statuses) {
+        List<String> names = new ArrayList<>();
+        statuses.forEach(status -> names.add(status.name()));
+        return names;
+    }
+
+    private static List<String> priorityNames(Set<TaskPriority> priorities) {
+        List<String> names = new ArrayList<>();
+        priorities.forEach(priority -> names.add(priority.name()));
+        return names;
+    }
+}
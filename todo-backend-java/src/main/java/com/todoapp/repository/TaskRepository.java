@@ -1,22 +1,59 @@
 package com.todoapp.repository;
 
+import com.todoapp.dto.UpdateTaskRequest;
 import com.todoapp.model.Task;
 import com.todoapp.model.Task.TaskStatus;
-import com.todoapp.model.Task.TaskPriority;
+import com.todoapp.model.UserTaskStats;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
-import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
-import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -27,23 +64,73 @@ public class TaskRepository {
     private static final Logger logger = LoggerFactory.getLogger(TaskRepository.class);
     private static final String TABLE_NAME = "Tasks";
     
+    // Upper bound on items evaluated per paginated query
+    public static final int MAX_PAGE_SIZE = 100;
+    
+    // BatchWriteItem/BatchGetItem limits and retry policy for unprocessed items
+    private static final int BATCH_WRITE_SIZE = 25;
+    private static final int BATCH_GET_SIZE = 100;
+    private static final int BATCH_CONCURRENCY = 4;
+    private static final int MAX_BATCH_ATTEMPTS = 6;
+    private static final long BATCH_BACKOFF_BASE_MILLIS = 50;
+    private static final long BATCH_BACKOFF_MAX_MILLIS = 2000;
+    
+    // Tasks read per scan page when backfilling openDueDate
+    private static final int BACKFILL_PAGE_SIZE = 100;
+    
+    // Shared by all repositories; daemon threads so they never hold the JVM open
+    private static final ExecutorService batchExecutor = Executors.newFixedThreadPool(BATCH_CONCURRENCY, runnable -> {
+        Thread thread = new Thread(runnable, "task-batch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
     private final DynamoDbEnhancedClient enhancedClient;
+    private final DynamoDbClient dynamoDbClient;
     private final DynamoDbTable<Task> taskTable;
+    private final DynamoDbTable<UserTaskStats> statsTable;
+    private final TaskCache taskCache;
+    
+    private final TaskIndexes taskIndexes = new TaskIndexes();
 
-    public TaskRepository(DynamoDbEnhancedClient enhancedClient) {
+    public TaskRepository(DynamoDbEnhancedClient enhancedClient, DynamoDbClient dynamoDbClient) {
+        this(enhancedClient, dynamoDbClient, new TaskCache(0, 0));
+    }
+
+    public TaskRepository(DynamoDbEnhancedClient enhancedClient, DynamoDbClient dynamoDbClient, TaskCache taskCache) {
         this.enhancedClient = enhancedClient;
+        this.dynamoDbClient = dynamoDbClient;
+        this.taskCache = taskCache;
         this.taskTable = enhancedClient.table(TABLE_NAME, TableSchema.fromBean(Task.class));
+        this.statsTable = enhancedClient.table(TaskStatsDelta.TABLE_NAME, TableSchema.fromBean(UserTaskStats.class));
     }
 
     /**
-     * Save a task to DynamoDB
+     * Save a new task to DynamoDB, counting it in the user's stats in the
+     * same transaction. Existing tasks are changed through patch, delete and
+     * the narrow updates below, never by putting the whole item back.
      */
     public Task save(Task task) {
         try {
             logger.info("Saving task with ID: {} for user: {}", task.getTaskId(), task.getUserId());
-            taskTable.putItem(task);
+            task.setVersion(null);
+            Map<String, AttributeValue> item = new HashMap<>(taskTable.tableSchema().itemToMap(task, true));
+            item.put("version", AttributeValue.builder().n(nextVersion(null).toString()).build());
+            
+            Put put = Put.builder()
+                    .tableName(taskTable.tableName())
+                    .item(item)
+                    .conditionExpression("attribute_not_exists(taskId)")
+                    .build();
+            writeWithStats(put, new TaskStatsDelta().add(task.getStatus(), task.isDeleted()), task.getUserId());
+            task.setVersion(nextVersion(null));
+            
+            taskCache.invalidate(task.getUserId());
             logger.info("Task saved successfully: {}", task.getTaskId());
             return task;
+        } catch (ConditionalCheckFailedException e) {
+            logger.warn("Task already exists: {}", task.getTaskId());
+            throw new RuntimeException("Task already exists", e);
         } catch (Exception e) {
             logger.error("Error saving task: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to save task", e);
@@ -51,7 +138,133 @@ public class TaskRepository {
     }
 
     /**
-     * Find task by user ID and task ID
+     * Save many new tasks with BatchWriteItem. Tasks are written in chunks of 25,
+     * chunks run concurrently, and unprocessed items are retried with backoff.
+     * Items still unwritten after the last attempt are reported as failed.
+     */
+    public BatchSaveResult saveAll(List<Task> tasks) {
+        try {
+            logger.info("Batch saving {} tasks", tasks.size());
+            
+            // New items only: BatchWriteItem cannot carry the version condition
+            tasks.forEach(task -> task.setVersion(1L));
+            
+            List<CompletableFuture<Set<String>>> chunkWrites = new ArrayList<>();
+            for (int start = 0; start < tasks.size(); start += BATCH_WRITE_SIZE) {
+                List<Task> chunk = tasks.subList(start, Math.min(start + BATCH_WRITE_SIZE, tasks.size()));
+                chunkWrites.add(CompletableFuture.supplyAsync(() -> writeChunk(chunk), batchExecutor));
+            }
+            
+            Set<String> failedTaskIds = new HashSet<>();
+            chunkWrites.forEach(chunkWrite -> failedTaskIds.addAll(chunkWrite.join()));
+            tasks.stream().map(Task::getUserId).distinct().forEach(taskCache::invalidate);
+            
+            List<Task> savedTasks = tasks.stream()
+                    .filter(task -> !failedTaskIds.contains(task.getTaskId()))
+                    .collect(Collectors.toList());
+            addToStats(savedTasks);
+            
+            logger.info("Batch saved {} tasks, {} failed", savedTasks.size(), failedTaskIds.size());
+            return new BatchSaveResult(savedTasks, failedTaskIds);
+        } catch (Exception e) {
+            logger.error("Error batch saving tasks: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to save tasks", e);
+        }
+    }
+
+    /**
+     * Count batch-written tasks in their users' stats. BatchWriteItem cannot be
+     * transactional, so this is one ADD per user after the fact; a failure here
+     * leaves the counters for the repair job. A user without a stats item is
+     * seeded from a full count, which already includes the new tasks.
+     */
+    private void addToStats(List<Task> savedTasks) {
+        Map<String, TaskStatsDelta> deltas = new HashMap<>();
+        for (Task task : savedTasks) {
+            deltas.computeIfAbsent(task.getUserId(), userId -> new TaskStatsDelta()).add(task.getStatus(), task.isDeleted());
+        }
+        deltas.forEach(this::moveStats);
+    }
+
+    /**
+     * Apply a stats delta as a standalone ADD after the task write has gone
+     * through. A failure here leaves the counters for the repair job; a user
+     * without a stats item is seeded from a full count, which already
+     * reflects the write.
+     */
+    private void moveStats(String userId, TaskStatsDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        try {
+            dynamoDbClient.updateItem(delta.toUpdateItemRequest(userId));
+        } catch (ConditionalCheckFailedException e) {
+            try {
+                rebuildStats(userId, false);
+            } catch (Exception rebuildFailure) {
+                logger.warn("Failed to seed task stats for user {}: {}", userId, rebuildFailure.getMessage());
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to update task stats for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Write one chunk, retrying unprocessed items. Returns the IDs left unwritten.
+     */
+    private Set<String> writeChunk(List<Task> chunk) {
+        List<WriteRequest> pending = chunk.stream()
+                .map(task -> WriteRequest.builder()
+                        .putRequest(PutRequest.builder()
+                                .item(taskTable.tableSchema().itemToMap(task, true))
+                                .build())
+                        .build())
+                .collect(Collectors.toList());
+        
+        try {
+            for (int attempt = 1; ; attempt++) {
+                BatchWriteItemResponse response = dynamoDbClient.batchWriteItem(BatchWriteItemRequest.builder()
+                        .requestItems(Map.of(taskTable.tableName(), pending))
+                        .build());
+                
+                pending = response.unprocessedItems().getOrDefault(taskTable.tableName(), Collections.emptyList());
+                if (pending.isEmpty() || attempt >= MAX_BATCH_ATTEMPTS) {
+                    break;
+                }
+                
+                logger.info("Retrying {} unprocessed task writes (attempt {})", pending.size(), attempt + 1);
+                if (!backoff(attempt)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error writing batch of {} tasks: {}", chunk.size(), e.getMessage(), e);
+            return chunk.stream().map(Task::getTaskId).collect(Collectors.toSet());
+        }
+        
+        return pending.stream()
+                .map(write -> write.putRequest().item().get("taskId").s())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Sleep with capped exponential backoff and full jitter.
+     * Returns false if the thread was interrupted.
+     */
+    private static boolean backoff(int attempt) {
+        long ceiling = Math.min(BATCH_BACKOFF_MAX_MILLIS, BATCH_BACKOFF_BASE_MILLIS << Math.min(attempt, 16));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Find task by user ID and task ID. Never cached: the version it returns
+     * becomes the ETag for the client's next conditional write.
      */
     public Optional<Task> findByUserIdAndTaskId(String userId, String taskId) {
         try {
@@ -77,30 +290,98 @@ public class TaskRepository {
     }
 
     /**
-     * Find all tasks for a user
+     * Find several tasks of a user by ID with BatchGetItem. Keys are fetched in
+     * chunks of 100 concurrently, unprocessed keys are retried with backoff, and
+     * results come back in request order with missing or deleted tasks omitted.
      */
-    public List<Task> findByUserId(String userId) {
+    public List<Task> findByUserIdAndTaskIds(String userId, List<String> taskIds) {
+        return findByUserIdAndTaskIds(userId, taskIds, null);
+    }
+
+    /**
+     * Find several tasks of a user by ID, reading only the selected fields (all when null)
+     */
+    public List<Task> findByUserIdAndTaskIds(String userId, List<String> taskIds, Set<String> fields) {
+        List<String> projection = TaskQueries.projection(fields);
         try {
-            logger.info("Finding all tasks for user: {}", userId);
+            // BatchGetItem rejects duplicate keys
+            List<String> uniqueTaskIds = new ArrayList<>(new LinkedHashSet<>(taskIds));
+            logger.info("Finding {} tasks by ID for user: {}", uniqueTaskIds.size(), userId);
             
-            QueryConditional queryConditional = QueryConditional.keyEqualTo(Key.builder()
-                    .partitionValue(userId)
-                    .build());
+            List<CompletableFuture<List<Map<String, AttributeValue>>>> chunkReads = new ArrayList<>();
+            for (int start = 0; start < uniqueTaskIds.size(); start += BATCH_GET_SIZE) {
+                List<String> chunk = uniqueTaskIds.subList(start, Math.min(start + BATCH_GET_SIZE, uniqueTaskIds.size()));
+                chunkReads.add(CompletableFuture.supplyAsync(() -> readChunk(userId, chunk, projection), batchExecutor));
+            }
+            
+            Map<String, Task> tasksById = new HashMap<>();
+            for (CompletableFuture<List<Map<String, AttributeValue>>> chunkRead : chunkReads) {
+                for (Map<String, AttributeValue> item : chunkRead.join()) {
+                    Task task = taskTable.tableSchema().mapToItem(item);
+                    if (!task.isDeleted()) {
+                        tasksById.put(task.getTaskId(), task);
+                    }
+                }
+            }
+            
+            List<Task> tasks = uniqueTaskIds.stream()
+                    .map(tasksById::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            
+            logger.info("Found {} of {} requested tasks for user: {}", tasks.size(), uniqueTaskIds.size(), userId);
+            return tasks;
+        } catch (Exception e) {
+            logger.error("Error finding tasks by ID for user {}: {}", userId, e.getMessage(), e);
+            throw new RuntimeException("Failed to find tasks", e);
+        }
+    }
 
-            Expression filterExpression = Expression.builder()
-                    .expression("isDeleted = :deleted")
-                    .putExpressionValue(":deleted", AttributeValue.builder().bool(false).build())
-                    .build();
+    /**
+     * Read one chunk of keys, retrying unprocessed keys
+     */
+    private List<Map<String, AttributeValue>> readChunk(String userId, List<String> taskIds, List<String> projection) {
+        KeysAndAttributes.Builder keysAndAttributes = KeysAndAttributes.builder()
+                .keys(taskIds.stream().map(taskId -> primaryKey(userId, taskId)).collect(Collectors.toList()));
+        if (projection != null) {
+            // Placeholders for every attribute, since several are reserved words (e.g. status)
+            Map<String, String> names = new HashMap<>();
+            for (int i = 0; i < projection.size(); i++) {
+                names.put("#p" + i, projection.get(i));
+            }
+            keysAndAttributes.projectionExpression(String.join(", ", names.keySet()))
+                    .expressionAttributeNames(names);
+        }
+        KeysAndAttributes pending = keysAndAttributes.build();
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        
+        for (int attempt = 1; ; attempt++) {
+            BatchGetItemResponse response = dynamoDbClient.batchGetItem(BatchGetItemRequest.builder()
+                    .requestItems(Map.of(taskTable.tableName(), pending))
+                    .build());
             
-            QueryEnhancedRequest queryRequest = QueryEnhancedRequest.builder()
-                    .queryConditional(queryConditional)
-                    .filterExpression(filterExpression)
-                    .build();
+            items.addAll(response.responses().getOrDefault(taskTable.tableName(), Collections.emptyList()));
+            
+            pending = response.unprocessedKeys().get(taskTable.tableName());
+            if (pending == null || !pending.hasKeys() || pending.keys().isEmpty()) {
+                return items;
+            }
+            if (attempt >= MAX_BATCH_ATTEMPTS || !backoff(attempt)) {
+                throw new RuntimeException(pending.keys().size() + " task keys left unprocessed after retries");
+            }
+            
+            logger.info("Retrying {} unprocessed task reads (attempt {})", pending.keys().size(), attempt + 1);
+        }
+    }
 
-            List<Task> tasks = taskTable.query(queryRequest)
-                    .items()
-                    .stream()
-                    .collect(Collectors.toList());
+    /**
+     * Find all tasks for a user
+     */
+    public List<Task> findByUserId(String userId) {
+        try {
+            logger.info("Finding all tasks for user: {}", userId);
+            
+            List<Task> tasks = queryAll(TaskQueries.userQuery(userId, TaskQueries.notDeletedFilter()));
 
             logger.info("Found {} tasks for user: {}", tasks.size(), userId);
             return tasks;
@@ -111,148 +392,387 @@ public class TaskRepository {
     }
 
     /**
-     * Find tasks by user ID and status
+     * Apply only the fields present in an update request with a single
+     * conditional UpdateItem. Returns the updated task, or empty if the task
+     * does not exist or is deleted.
+     */
+    public Optional<Task> patch(String userId, String taskId, UpdateTaskRequest changes) {
+        return patch(userId, taskId, changes, null);
+    }
+
+    /**
+     * Patch a task only if it is still at the expected version (when given).
+     * Fails with "Version conflict" if the task has since been modified.
      */
-    public List<Task> findByUserIdAndStatus(String userId, TaskStatus status) {
+    public Optional<Task> patch(String userId, String taskId, UpdateTaskRequest changes, Long expectedVersion) {
         try {
-            logger.info("Finding tasks for user: {} with status: {}", userId, status);
+            logger.info("Patching task: {} for user: {}", taskId, userId);
             
-            QueryConditional queryConditional = QueryConditional.keyEqualTo(Key.builder()
-                    .partitionValue(userId)
-                    .build());
-
-            Expression filterExpression = Expression.builder()
-                    .expression("isDeleted = :deleted AND #status = :status")
-                    .putExpressionName("#status", "status")
-                    .putExpressionValue(":deleted", AttributeValue.builder().bool(false).build())
-                    .putExpressionValue(":status", AttributeValue.builder().s(status.name()).build())
-                    .build();
+            Task task;
+            try {
+                task = applyPatch(userId, taskId, changes, expectedVersion, false, null);
+            } catch (ConditionalCheckFailedException e) {
+                if (!conditionsOnStatus(changes) || !isCompletedTask(e)) {
+                    throw e;
+                }
+                // A completed task keeps its due date out of the DueDateIndex until reopened
+                task = applyPatch(userId, taskId, changes, expectedVersion, true, e.item().get("dueDate"));
+            }
+            taskCache.invalidate(userId);
             
-            QueryEnhancedRequest queryRequest = QueryEnhancedRequest.builder()
-                    .queryConditional(queryConditional)
-                    .filterExpression(filterExpression)
-                    .build();
+            logger.info("Task patched successfully: {} (version: {})", taskId, task.getVersion());
+            return Optional.of(task);
+        } catch (ConditionalCheckFailedException e) {
+            if (isLiveTask(e)) {
+                logger.warn("Version conflict patching task: {} (expected version: {})", taskId, expectedVersion);
+                throw new RuntimeException("Version conflict", e);
+            }
+            logger.info("Task not found or deleted for patch: {}", taskId);
+            return Optional.empty();
+        } catch (Exception e) {
+            logger.error("Error patching task {}: {}", taskId, e.getMessage(), e);
+            throw new RuntimeException("Failed to update task", e);
+        }
+    }
 
-            List<Task> tasks = taskTable.query(queryRequest)
-                    .items()
-                    .stream()
-                    .collect(Collectors.toList());
+    /**
+     * Run one patch UpdateItem. A status change returns the item as it was,
+     * so the stats counters can be moved from the stored status without a
+     * read; the patched task is then rebuilt from it in memory.
+     */
+    private Task applyPatch(String userId, String taskId, UpdateTaskRequest changes, Long expectedVersion,
+                            boolean completed, AttributeValue storedDueDate) {
+        Instant updatedAt = Instant.now();
+        UpdateItemResponse response = dynamoDbClient.updateItem(
+                patchRequest(userId, taskId, changes, expectedVersion, completed, storedDueDate, updatedAt));
+        Task task = taskTable.tableSchema().mapToItem(response.attributes());
+        if (changes.getStatus() == null) {
+            return task;
+        }
+        
+        TaskStatus storedStatus = task.getStatus();
+        applyChanges(task, changes, updatedAt);
+        task.setVersion(nextVersion(task.getVersion()));
+        moveStats(userId, new TaskStatsDelta().remove(storedStatus, false).add(task.getStatus(), false));
+        return task;
+    }
 
-            logger.info("Found {} tasks with status {} for user: {}", tasks.size(), status, userId);
-            return tasks;
-        } catch (Exception e) {
-            logger.error("Error finding tasks by status for user {}: {}", userId, e.getMessage(), e);
-            throw new RuntimeException("Failed to find tasks by status", e);
+    private static void applyChanges(Task task, UpdateTaskRequest changes, Instant updatedAt) {
+        if (changes.getTitle() != null && !changes.getTitle().trim().isEmpty()) {
+            task.setTitle(changes.getTitle().trim());
+        }
+        if (changes.getDescription() != null) {
+            task.setDescription(changes.getDescription().trim());
+        }
+        if (changes.getStatus() != null) {
+            task.setStatus(changes.getStatus());
+        }
+        if (changes.getPriority() != null) {
+            task.setPriority(changes.getPriority());
         }
+        if (changes.getDueDate() != null) {
+            task.setDueDate(changes.getDueDate());
+        }
+        task.setUpdatedAt(updatedAt);
     }
 
     /**
-     * Find tasks by user ID and priority
+     * Commit a task put and its stats delta in one transaction, or as a plain
+     * put when the counters do not move. A failed condition on the task is
+     * rethrown as ConditionalCheckFailedException. If the user has no stats
+     * item yet, it is seeded from the tasks as they are before this write and
+     * the transaction is retried once.
      */
-    public List<Task> findByUserIdAndPriority(String userId, TaskPriority priority) {
-        try {
-            logger.info("Finding tasks for user: {} with priority: {}", userId, priority);
-            
-            QueryConditional queryConditional = QueryConditional.keyEqualTo(Key.builder()
-                    .partitionValue(userId)
+    private void writeWithStats(Put put, TaskStatsDelta delta, String userId) {
+        if (delta.isEmpty()) {
+            dynamoDbClient.putItem(PutItemRequest.builder()
+                    .tableName(put.tableName())
+                    .item(put.item())
+                    .conditionExpression(put.conditionExpression())
                     .build());
+            return;
+        }
+        
+        for (int attempt = 1; ; attempt++) {
+            try {
+                dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(TransactWriteItem.builder().put(put).build(), delta.toTransactItem(userId))
+                        .build());
+                return;
+            } catch (TransactionCanceledException e) {
+                List<CancellationReason> reasons = e.cancellationReasons();
+                if (reasons == null || reasons.size() < 2) {
+                    throw e;
+                }
+                if ("ConditionalCheckFailed".equals(reasons.get(0).code())) {
+                    throw ConditionalCheckFailedException.builder()
+                            .message(reasons.get(0).message())
+                            .item(reasons.get(0).item())
+                            .build();
+                }
+                if (attempt > 1 || !"ConditionalCheckFailed".equals(reasons.get(1).code())) {
+                    throw e;
+                }
+                logger.info("No task stats for user {}, seeding them before the write", userId);
+                rebuildStats(userId, false);
+            }
+        }
+    }
 
-            Expression filterExpression = Expression.builder()
-                    .expression("isDeleted = :deleted AND priority = :priority")
-                    .putExpressionValue(":deleted", AttributeValue.builder().bool(false).build())
-                    .putExpressionValue(":priority", AttributeValue.builder().s(priority.name()).build())
-                    .build();
-            
-            QueryEnhancedRequest queryRequest = QueryEnhancedRequest.builder()
-                    .queryConditional(queryConditional)
-                    .filterExpression(filterExpression)
-                    .build();
-
-            List<Task> tasks = taskTable.query(queryRequest)
-                    .items()
-                    .stream()
-                    .collect(Collectors.toList());
+    /**
+     * Whether a patch writes the sparse DueDateIndex key, which depends on the
+     * stored status unless the patch itself completes the task
+     */
+    private static boolean conditionsOnStatus(UpdateTaskRequest changes) {
+        if (changes.getStatus() != null) {
+            return changes.getStatus() != TaskStatus.COMPLETED;
+        }
+        return changes.getDueDate() != null;
+    }
 
-            logger.info("Found {} tasks with priority {} for user: {}", tasks.size(), priority, userId);
-            return tasks;
-        } catch (Exception e) {
-            logger.error("Error finding tasks by priority for user {}: {}", userId, e.getMessage(), e);
-            throw new RuntimeException("Failed to find tasks by priority", e);
+    /**
+     * Build the UpdateItem for a patch. A new due date or a reopened task
+     * moves the sparse DueDateIndex key, which depends on the stored status,
+     * so the write is conditioned on that status being open, or with
+     * {@code completed} on it being COMPLETED. Reopening a completed task
+     * puts its due date back in the index: the new one if the patch carries
+     * one, otherwise {@code storedDueDate}, which the write is conditioned on.
+     * A status change returns the old item, for the stats counters.
+     */
+    private UpdateItemRequest patchRequest(String userId, String taskId, UpdateTaskRequest changes,
+                                           Long expectedVersion, boolean completed,
+                                           AttributeValue storedDueDate, Instant updatedAt) {
+        List<String> setActions = new ArrayList<>();
+        List<String> removeActions = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        String condition = "attribute_exists(taskId) AND isDeleted = :deleted";
+        
+        if (changes.getTitle() != null && !changes.getTitle().trim().isEmpty()) {
+            setActions.add("title = :title");
+            values.put(":title", AttributeValue.builder().s(changes.getTitle().trim()).build());
+        }
+        
+        if (changes.getDescription() != null) {
+            setActions.add("description = :description");
+            values.put(":description", AttributeValue.builder().s(changes.getDescription().trim()).build());
+        }
+        
+        if (changes.getPriority() != null) {
+            setActions.add("priority = :priority");
+            values.put(":priority", AttributeValue.builder().s(changes.getPriority().name()).build());
         }
+        
+        if (changes.getDueDate() != null) {
+            setActions.add("dueDate = :dueDate");
+            values.put(":dueDate", AttributeValue.builder().s(changes.getDueDate().toString()).build());
+        }
+        
+        TaskStatus newStatus = changes.getStatus();
+        if (newStatus != null) {
+            names.put("#status", "status");
+            setActions.add("#status = :newStatus");
+            setActions.add("statusIndex = :statusIndex");
+            values.put(":newStatus", AttributeValue.builder().s(newStatus.name()).build());
+            values.put(":statusIndex", AttributeValue.builder().s(Task.statusIndexKey(userId, newStatus)).build());
+        }
+        
+        if (newStatus == TaskStatus.COMPLETED) {
+            removeActions.add("openDueDate");
+        } else if (conditionsOnStatus(changes)) {
+            names.put("#status", "status");
+            values.put(":completed", AttributeValue.builder().s(TaskStatus.COMPLETED.name()).build());
+            if (!completed) {
+                if (changes.getDueDate() != null) {
+                    setActions.add("openDueDate = :dueDate");
+                }
+                condition += " AND #status <> :completed";
+            } else if (newStatus == null) {
+                removeActions.add("openDueDate");
+                condition += " AND #status = :completed";
+            } else {
+                condition += " AND #status = :completed";
+                if (changes.getDueDate() != null) {
+                    setActions.add("openDueDate = :dueDate");
+                } else if (storedDueDate != null) {
+                    setActions.add("openDueDate = :storedDueDate");
+                    values.put(":storedDueDate", storedDueDate);
+                    condition += " AND dueDate = :storedDueDate";
+                } else {
+                    condition += " AND attribute_not_exists(dueDate)";
+                }
+            }
+        }
+        
+        setActions.add("updatedAt = :updatedAt");
+        values.put(":updatedAt", AttributeValue.builder().s(updatedAt.toString()).build());
+        values.put(":deleted", AttributeValue.builder().bool(false).build());
+        
+        condition = addVersionActions(setActions, names, values, condition, expectedVersion);
+        
+        String updateExpression = "SET " + String.join(", ", setActions);
+        if (!removeActions.isEmpty()) {
+            updateExpression += " REMOVE " + String.join(", ", removeActions);
+        }
+        return UpdateItemRequest.builder()
+                .tableName(taskTable.tableName())
+                .key(primaryKey(userId, taskId))
+                .updateExpression(updateExpression)
+                .conditionExpression(condition)
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .returnValues(newStatus == null ? ReturnValue.ALL_NEW : ReturnValue.ALL_OLD)
+                .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                .build();
     }
 
     /**
-     * Find overdue tasks for a user
+     * Add the version increment to an update and, when an expected version is
+     * given, require it in the condition. Returns the extended condition.
      */
-    public List<Task> findOverdueTasks(String userId) {
-        try {
-            logger.info("Finding overdue tasks for user: {}", userId);
-            
-            String today = LocalDate.now().toString();
-            
-            QueryConditional queryConditional = QueryConditional.keyEqualTo(Key.builder()
-                    .partitionValue(userId)
-                    .build());
+    private static String addVersionActions(List<String> setActions, Map<String, String> names,
+                                            Map<String, AttributeValue> values, String condition,
+                                            Long expectedVersion) {
+        setActions.add("#version = if_not_exists(#version, :zero) + :one");
+        names.put("#version", "version");
+        values.put(":zero", AttributeValue.builder().n("0").build());
+        values.put(":one", AttributeValue.builder().n("1").build());
+        
+        if (expectedVersion == null) {
+            return condition;
+        }
+        values.put(":expectedVersion", AttributeValue.builder().n(expectedVersion.toString()).build());
+        return condition + " AND #version = :expectedVersion";
+    }
 
-            Expression filterExpression = Expression.builder()
-                    .expression("isDeleted = :deleted AND #status <> :completed AND dueDate < :today")
-                    .putExpressionName("#status", "status")
-                    .putExpressionValue(":deleted", AttributeValue.builder().bool(false).build())
-                    .putExpressionValue(":completed", AttributeValue.builder().s(TaskStatus.COMPLETED.name()).build())
-                    .putExpressionValue(":today", AttributeValue.builder().s(today).build())
-                    .build();
-            
-            QueryEnhancedRequest queryRequest = QueryEnhancedRequest.builder()
-                    .queryConditional(queryConditional)
-                    .filterExpression(filterExpression)
-                    .build();
+    /**
+     * The version the VersionedRecordExtension writes for a bean read at the given version
+     */
+    private static Long nextVersion(Long version) {
+        return version == null ? 1L : version + 1;
+    }
 
-            List<Task> tasks = taskTable.query(queryRequest)
-                    .items()
-                    .stream()
-                    .collect(Collectors.toList());
+    /**
+     * Whether a failed condition saw an existing, non-deleted task, i.e. the
+     * failure was a version mismatch rather than a missing task
+     */
+    private static boolean isLiveTask(ConditionalCheckFailedException e) {
+        if (!e.hasItem() || e.item().isEmpty()) {
+            return false;
+        }
+        AttributeValue deleted = e.item().get("isDeleted");
+        return deleted == null || !Boolean.TRUE.equals(deleted.bool());
+    }
 
-            logger.info("Found {} overdue tasks for user: {}", tasks.size(), userId);
-            return tasks;
-        } catch (Exception e) {
-            logger.error("Error finding overdue tasks for user {}: {}", userId, e.getMessage(), e);
-            throw new RuntimeException("Failed to find overdue tasks", e);
+    /**
+     * Whether a failed condition saw an existing, non-deleted, completed task
+     */
+    private static boolean isCompletedTask(ConditionalCheckFailedException e) {
+        if (!isLiveTask(e)) {
+            return false;
         }
+        AttributeValue status = e.item().get("status");
+        return status != null && TaskStatus.COMPLETED.name().equals(status.s());
+    }
+
+    private static Map<String, AttributeValue> primaryKey(String userId, String taskId) {
+        return Map.of(
+                "userId", AttributeValue.builder().s(userId).build(),
+                "taskId", AttributeValue.builder().s(taskId).build());
     }
 
     /**
-     * Update task
+     * Flag a task's reminder as sent with a single UpdateItem, so the rest of
+     * the item (and items written before versioning) is left as stored.
+     * Fails with "Task not found" if the task does not exist or is deleted.
      */
-    public Task update(Task task) {
+    public void markReminderSent(String userId, String taskId) {
         try {
-            logger.info("Updating task: {} for user: {}", task.getTaskId(), task.getUserId());
-            task.updateTimestamp();
-            taskTable.putItem(task);
-            logger.info("Task updated successfully: {}", task.getTaskId());
-            return task;
+            List<String> setActions = new ArrayList<>();
+            Map<String, String> names = new HashMap<>();
+            Map<String, AttributeValue> values = new HashMap<>();
+            
+            setActions.add("isReminderSent = :sent");
+            setActions.add("updatedAt = :updatedAt");
+            values.put(":sent", AttributeValue.builder().bool(true).build());
+            values.put(":deleted", AttributeValue.builder().bool(false).build());
+            values.put(":updatedAt", AttributeValue.builder().s(Instant.now().toString()).build());
+            
+            String condition = addVersionActions(setActions, names, values,
+                    "attribute_exists(taskId) AND isDeleted = :deleted", null);
+            
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(taskTable.tableName())
+                    .key(primaryKey(userId, taskId))
+                    .updateExpression("SET " + String.join(", ", setActions))
+                    .conditionExpression(condition)
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values)
+                    .build());
+            taskCache.invalidate(userId);
+        } catch (ConditionalCheckFailedException e) {
+            logger.warn("Task not found for reminder: {} for user: {}", taskId, userId);
+            throw new RuntimeException("Task not found", e);
         } catch (Exception e) {
-            logger.error("Error updating task {}: {}", task.getTaskId(), e.getMessage(), e);
+            logger.error("Error marking reminder sent for task {}: {}", taskId, e.getMessage(), e);
             throw new RuntimeException("Failed to update task", e);
         }
     }
 
     /**
-     * Soft delete task by marking as deleted
+     * Soft delete task by marking as deleted with a single conditional UpdateItem.
+     * Fails with "Task not found" if the task does not exist or is already deleted.
      */
     public void delete(String userId, String taskId) {
+        delete(userId, taskId, null);
+    }
+
+    /**
+     * Soft delete a task only if it is still at the expected version (when given).
+     * Fails with "Version conflict" if the task has since been modified. The
+     * update returns the old item, so the stats counters move from the status
+     * the delete actually saw, in a separate ADD afterwards.
+     */
+    public void delete(String userId, String taskId, Long expectedVersion) {
         try {
             logger.info("Soft deleting task: {} for user: {}", taskId, userId);
-            Optional<Task> taskOpt = findByUserIdAndTaskId(userId, taskId);
             
-            if (taskOpt.isPresent()) {
-                Task task = taskOpt.get();
-                task.markAsDeleted();
-                taskTable.putItem(task);
-                logger.info("Task soft deleted successfully: {}", taskId);
-            } else {
-                logger.warn("Task not found for deletion: {} for user: {}", taskId, userId);
-                throw new RuntimeException("Task not found");
+            List<String> setActions = new ArrayList<>();
+            Map<String, String> names = new HashMap<>();
+            Map<String, AttributeValue> values = new HashMap<>();
+            
+            setActions.add("isDeleted = :deletedNow");
+            setActions.add("updatedAt = :updatedAt");
+            values.put(":deletedNow", AttributeValue.builder().bool(true).build());
+            values.put(":deleted", AttributeValue.builder().bool(false).build());
+            values.put(":updatedAt", AttributeValue.builder().s(Instant.now().toString()).build());
+            
+            String condition = "attribute_exists(taskId) AND isDeleted = :deleted";
+            condition = addVersionActions(setActions, names, values, condition, expectedVersion);
+            
+            UpdateItemResponse response = dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(taskTable.tableName())
+                    .key(primaryKey(userId, taskId))
+                    .updateExpression("SET " + String.join(", ", setActions) + " REMOVE openDueDate")
+                    .conditionExpression(condition)
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values)
+                    .returnValues(ReturnValue.ALL_OLD)
+                    .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                    .build());
+            taskCache.invalidate(userId);
+            
+            Task deleted = taskTable.tableSchema().mapToItem(response.attributes());
+            moveStats(userId, new TaskStatsDelta().remove(deleted.getStatus(), false));
+            
+            logger.info("Task soft deleted successfully: {}", taskId);
+        } catch (ConditionalCheckFailedException e) {
+            if (isLiveTask(e)) {
+                logger.warn("Version conflict deleting task: {} (expected version: {})", taskId, expectedVersion);
+                throw new RuntimeException("Version conflict", e);
             }
+            logger.warn("Task not found for deletion: {} for user: {}", taskId, userId);
+            throw new RuntimeException("Task not found", e);
         } catch (Exception e) {
             logger.error("Error deleting task {} for user {}: {}", taskId, userId, e.getMessage(), e);
             throw new RuntimeException("Failed to delete task", e);
@@ -260,12 +780,16 @@ public class TaskRepository {
     }
 
     /**
-     * Count tasks by status for a user
+     * Count tasks by status for a user (count-only query on the StatusIndex)
      */
     public long countByUserIdAndStatus(String userId, TaskStatus status) {
         try {
-            List<Task> tasks = findByUserIdAndStatus(userId, status);
-            return tasks.size();
+            long count = withIndex(TaskQueries.STATUS_INDEX,
+                    () -> count(TaskQueries.statusIndexCountQuery(taskTable.tableName(), userId, status)),
+                    () -> count(TaskQueries.userCountQuery(taskTable.tableName(), userId, TaskQueries.statusFilter(status))));
+            
+            logger.info("Counted {} tasks with status {} for user: {}", count, status, userId);
+            return count;
         } catch (Exception e) {
             logger.error("Error counting tasks by status for user {}: {}", userId, e.getMessage(), e);
             throw new RuntimeException("Failed to count tasks by status", e);
@@ -273,31 +797,208 @@ public class TaskRepository {
     }
 
     /**
-     * Get task statistics for a user
+     * Count overdue tasks for a user (count-only query on the DueDateIndex)
+     */
+    public long countOverdueTasks(String userId) {
+        try {
+            long count = withIndex(TaskQueries.DUE_DATE_INDEX,
+                    () -> count(TaskQueries.overdueIndexCountQuery(taskTable.tableName(), userId)),
+                    () -> count(TaskQueries.userCountQuery(taskTable.tableName(), userId, TaskQueries.overdueFilter())));
+            
+            logger.info("Counted {} overdue tasks for user: {}", count, userId);
+            return count;
+        } catch (Exception e) {
+            logger.error("Error counting overdue tasks for user {}: {}", userId, e.getMessage(), e);
+            throw new RuntimeException("Failed to count overdue tasks", e);
+        }
+    }
+
+    /**
+     * Get task statistics for a user from the materialized counters. Overdue
+     * depends on the date, so it is counted from the DueDateIndex instead.
      */
     public TaskStats getTaskStats(String userId) {
+        TaskStats cached = taskCache.get(userId, "stats");
+        if (cached != null) {
+            return cached;
+        }
+        
         try {
             logger.info("Getting task statistics for user: {}", userId);
             
-            List<Task> allTasks = findByUserId(userId);
+            UserTaskStats counters = statsTable.getItem(Key.builder().partitionValue(userId).build());
+            if (counters == null) {
+                counters = rebuildStats(userId, false);
+            }
             
-            long totalTasks = allTasks.size();
-            long completedTasks = allTasks.stream().mapToLong(task -> 
-                task.getStatus() == TaskStatus.COMPLETED ? 1 : 0).sum();
-            long pendingTasks = allTasks.stream().mapToLong(task -> 
-                task.getStatus() == TaskStatus.PENDING ? 1 : 0).sum();
-            long inProgressTasks = allTasks.stream().mapToLong(task -> 
-                task.getStatus() == TaskStatus.IN_PROGRESS ? 1 : 0).sum();
-            long overdueTasks = allTasks.stream().mapToLong(task -> 
-                task.isOverdue() ? 1 : 0).sum();
-
-            return new TaskStats(totalTasks, completedTasks, pendingTasks, inProgressTasks, overdueTasks);
+            TaskStats stats = TaskStats.fromCounters(counters, countOverdueTasks(userId));
+            taskCache.put(userId, "stats", stats);
+            return stats;
         } catch (Exception e) {
             logger.error("Error getting task statistics for user {}: {}", userId, e.getMessage(), e);
             throw new RuntimeException("Failed to get task statistics", e);
         }
     }
 
+    /**
+     * Recompute a user's stats counters from their tasks and overwrite the
+     * stored item. Writes that land during the recount can be lost, so run
+     * it when the counters are known to have drifted.
+     */
+    public UserTaskStats repairStats(String userId) {
+        try {
+            logger.info("Repairing task statistics for user: {}", userId);
+            UserTaskStats counters = rebuildStats(userId, true);
+            taskCache.invalidate(userId);
+            logger.info("Repaired task statistics: {}", counters);
+            return counters;
+        } catch (Exception e) {
+            logger.error("Error repairing task statistics for user {}: {}", userId, e.getMessage(), e);
+            throw new RuntimeException("Failed to repair task statistics", e);
+        }
+    }
+
+    /**
+     * Count a user's tasks into a stats item. Without overwrite the item is only
+     * created when missing; if another writer seeded it first, that item is
+     * returned instead. Counter deltas never create the item, so it is always
+     * a full count.
+     */
+    private UserTaskStats rebuildStats(String userId, boolean overwrite) {
+        // Consistent, so a seed taken right after a write already counts it
+        UserTaskStats counters = TaskStats.countersFor(userId,
+                queryAll(TaskQueries.userQuery(userId, TaskQueries.notDeletedFilter()).consistentRead(true)));
+        
+        try {
+            statsTable.putItem(TaskStatsDelta.seedRequest(counters, overwrite));
+            return counters;
+        } catch (ConditionalCheckFailedException e) {
+            return statsTable.getItem(request -> request
+                    .key(Key.builder().partitionValue(userId).build())
+                    .consistentRead(true));
+        }
+    }
+
+    /**
+     * Set openDueDate on open tasks written before the DueDateIndex existed,
+     * one bounded batch at a time. Safe to run online: each write is
+     * conditioned on the task still being open with the scanned due date, so
+     * a concurrent write always wins.
+     */
+    public BackfillResult backfillOpenDueDates(String startUserId, String startTaskId, int maxTasks) {
+        try {
+            logger.info("Backfilling openDueDate from task: {}/{} (max: {})", startUserId, startTaskId, maxTasks);
+            
+            ScanRequest.Builder scanRequest = ScanRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .limit(BACKFILL_PAGE_SIZE)
+                    .projectionExpression("userId, taskId, dueDate, #status, isDeleted, openDueDate")
+                    .expressionAttributeNames(Map.of("#status", "status"));
+            if (startUserId != null && startTaskId != null) {
+                scanRequest.exclusiveStartKey(primaryKey(startUserId, startTaskId));
+            }
+            
+            long scanned = 0;
+            long updated = 0;
+            Map<String, AttributeValue> lastKey = null;
+            
+            for (ScanResponse page : dynamoDbClient.scanPaginator(scanRequest.build())) {
+                for (Map<String, AttributeValue> item : page.items()) {
+                    scanned++;
+                    if (needsOpenDueDate(item) && setOpenDueDate(item)) {
+                        updated++;
+                    }
+                }
+                
+                lastKey = page.hasLastEvaluatedKey() && !page.lastEvaluatedKey().isEmpty() ? page.lastEvaluatedKey() : null;
+                if (lastKey == null || scanned >= maxTasks) {
+                    break;
+                }
+            }
+            
+            BackfillResult result = new BackfillResult(scanned, updated,
+                    lastKey != null ? lastKey.get("userId").s() : null,
+                    lastKey != null ? lastKey.get("taskId").s() : null);
+            logger.info("openDueDate backfill batch done: scanned {}, updated {}, next start: {}/{}",
+                    scanned, updated, result.getNextStartUserId(), result.getNextStartTaskId());
+            return result;
+        } catch (Exception e) {
+            logger.error("Error backfilling openDueDate: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to backfill open due dates", e);
+        }
+    }
+
+    private static boolean needsOpenDueDate(Map<String, AttributeValue> item) {
+        AttributeValue dueDate = item.get("dueDate");
+        AttributeValue status = item.get("status");
+        AttributeValue deleted = item.get("isDeleted");
+        return !item.containsKey("openDueDate")
+                && dueDate != null && dueDate.s() != null
+                && status != null && !TaskStatus.COMPLETED.name().equals(status.s())
+                && (deleted == null || !Boolean.TRUE.equals(deleted.bool()));
+    }
+
+    /**
+     * Copy dueDate into openDueDate unless the task changed since it was scanned
+     */
+    private boolean setOpenDueDate(Map<String, AttributeValue> item) {
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(primaryKey(item.get("userId").s(), item.get("taskId").s()))
+                    .updateExpression("SET openDueDate = :dueDate")
+                    .conditionExpression("attribute_not_exists(openDueDate) AND dueDate = :dueDate " +
+                            "AND #status = :status AND (attribute_not_exists(isDeleted) OR isDeleted = :false)")
+                    .expressionAttributeNames(Map.of("#status", "status"))
+                    .expressionAttributeValues(Map.of(
+                            ":dueDate", item.get("dueDate"),
+                            ":status", item.get("status"),
+                            ":false", AttributeValue.builder().bool(false).build()))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Run a query against a secondary index, falling back to the base table
+     * when the index does not exist in this environment
+     */
+    private <T> T withIndex(String indexName, Supplier<T> indexQuery, Supplier<T> tableQuery) {
+        if (taskIndexes.isAvailable(indexName)) {
+            try {
+                return indexQuery.get();
+            } catch (DynamoDbException e) {
+                if (!taskIndexes.markIfMissing(indexName, e)) {
+                    throw e;
+                }
+            }
+        }
+        return tableQuery.get();
+    }
+
+    /**
+     * Run a count-only query to completion, summing Count over every page
+     */
+    private long count(QueryRequest.Builder queryRequest) {
+        long count = 0;
+        for (QueryResponse page : dynamoDbClient.queryPaginator(queryRequest.build())) {
+            count += page.count();
+        }
+        return count;
+    }
+
+    /**
+     * Run a base-table query to completion, following every page
+     */
+    private List<Task> queryAll(QueryEnhancedRequest.Builder queryRequest) {
+        return taskTable.query(queryRequest.build())
+                .stream()
+                .flatMap(page -> page.items().stream())
+                .collect(Collectors.toList());
+    }
+
     /**
      * Task statistics data class
      */
@@ -316,10 +1017,138 @@ public class TaskRepository {
             this.overdueTasks = overdueTasks;
         }
 
+        /**
+         * Build statistics from materialized counters; counters that drifted below zero read as zero
+         */
+        public static TaskStats fromCounters(UserTaskStats counters, long overdueTasks) {
+            return new TaskStats(nonNegative(counters.getTotalTasks()), nonNegative(counters.getCompletedTasks()),
+                    nonNegative(counters.getPendingTasks()), nonNegative(counters.getInProgressTasks()), overdueTasks);
+        }
+
+        private static long nonNegative(Long counter) {
+            return counter == null ? 0 : Math.max(0, counter);
+        }
+
+        /**
+         * Summarize a user's non-deleted tasks in a single pass
+         */
+        public static TaskStats fromTasks(List<Task> tasks) {
+            Accumulator accumulator = new Accumulator();
+            for (Task task : tasks) {
+                accumulator.add(task);
+            }
+            return accumulator.toStats();
+        }
+
+        /**
+         * A full count of a user's non-deleted tasks as a stats item, for seeding or repair
+         */
+        static UserTaskStats countersFor(String userId, List<Task> tasks) {
+            TaskStats counted = fromTasks(tasks);
+            return new UserTaskStats(userId, counted.getTotalTasks(), counted.getPendingTasks(),
+                    counted.getInProgressTasks(), counted.getCompletedTasks());
+        }
+
         public long getTotalTasks() { return totalTasks; }
         public long getCompletedTasks() { return completedTasks; }
         public long getPendingTasks() { return pendingTasks; }
         public long getInProgressTasks() { return inProgressTasks; }
         public long getOverdueTasks() { return overdueTasks; }
+
+        /**
+         * Single-pass counter: one primitive slot per status, indexed by ordinal
+         */
+        public static final class Accumulator {
+            private final long[] byStatus = new long[TaskStatus.values().length];
+            private final LocalDate today = LocalDate.now();
+            private long total;
+            private long overdue;
+
+            public void add(Task task) {
+                total++;
+                TaskStatus status = task.getStatus();
+                if (status != null) {
+                    byStatus[status.ordinal()]++;
+                }
+                if (status != TaskStatus.COMPLETED && task.getDueDate() != null && today.isAfter(task.getDueDate())) {
+                    overdue++;
+                }
+            }
+
+            public TaskStats toStats() {
+                return new TaskStats(total, byStatus[TaskStatus.COMPLETED.ordinal()],
+                        byStatus[TaskStatus.PENDING.ordinal()], byStatus[TaskStatus.IN_PROGRESS.ordinal()], overdue);
+            }
+        }
+    }
+
+    /**
+     * A bounded page of tasks with an opaque cursor for the next page
+     */
+    public static class TaskPage {
+        private final List<Task> tasks;
+        private final String nextCursor;
+        private final String queryPlan;
+
+        public TaskPage(List<Task> tasks, String nextCursor) {
+            this(tasks, nextCursor, null);
+        }
+
+        public TaskPage(List<Task> tasks, String nextCursor, String queryPlan) {
+            this.tasks = tasks;
+            this.nextCursor = nextCursor;
+            this.queryPlan = queryPlan;
+        }
+
+        /**
+         * The same page, annotated with the query that produced it
+         */
+        public TaskPage withQueryPlan(String queryPlan) {
+            return new TaskPage(tasks, nextCursor, queryPlan);
+        }
+
+        public List<Task> getTasks() { return tasks; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean hasMore() { return nextCursor != null; }
+        public String getQueryPlan() { return queryPlan; }
+    }
+
+    /**
+     * Outcome of one openDueDate backfill batch and the key to resume from
+     */
+    public static class BackfillResult {
+        private final long scannedTasks;
+        private final long updatedTasks;
+        private final String nextStartUserId;
+        private final String nextStartTaskId;
+
+        public BackfillResult(long scannedTasks, long updatedTasks, String nextStartUserId, String nextStartTaskId) {
+            this.scannedTasks = scannedTasks;
+            this.updatedTasks = updatedTasks;
+            this.nextStartUserId = nextStartUserId;
+            this.nextStartTaskId = nextStartTaskId;
+        }
+
+        public long getScannedTasks() { return scannedTasks; }
+        public long getUpdatedTasks() { return updatedTasks; }
+        public String getNextStartUserId() { return nextStartUserId; }
+        public String getNextStartTaskId() { return nextStartTaskId; }
+        public boolean isComplete() { return nextStartUserId == null; }
+    }
+
+    /**
+     * Outcome of a batch save: tasks written and IDs that could not be written
+     */
+    public static class BatchSaveResult {
+        private final List<Task> savedTasks;
+        private final Set<String> failedTaskIds;
+
+        public BatchSaveResult(List<Task> savedTasks, Set<String> failedTaskIds) {
+            this.savedTasks = savedTasks;
+            this.failedTaskIds = failedTaskIds;
+        }
+
+        public List<Task> getSavedTasks() { return savedTasks; }
+        public Set<String> getFailedTaskIds() { return failedTaskIds; }
     }
 }
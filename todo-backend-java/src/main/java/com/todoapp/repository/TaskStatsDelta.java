@@ -0,0 +1,145 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task.TaskStatus;
+import com.todoapp.model.UserTaskStats;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Net change to a user's materialized task counters, written as one ADD
+ * expression. Deleted tasks count towards nothing. The ADD only applies to
+ * an existing stats item: creating one from a delta would leave counters
+ * that miss every earlier task, so a missing item fails the write and the
+ * caller seeds it from a full count instead.
+ */
+final class TaskStatsDelta {
+
+    static final String TABLE_NAME = "TaskStats";
+
+    private static final String ITEM_EXISTS = "attribute_exists(userId)";
+
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+
+    /**
+     * Count a task in the given state
+     */
+    TaskStatsDelta add(TaskStatus status, boolean deleted) {
+        return apply(status, deleted, 1);
+    }
+
+    /**
+     * Stop counting a task in the given state
+     */
+    TaskStatsDelta remove(TaskStatus status, boolean deleted) {
+        return apply(status, deleted, -1);
+    }
+
+    boolean isEmpty() {
+        return counters.values().stream().allMatch(value -> value == 0);
+    }
+
+    /**
+     * The delta as a transaction item, to commit together with the task write
+     */
+    TransactWriteItem toTransactItem(String userId) {
+        Expressions expressions = expressions();
+        return TransactWriteItem.builder()
+                .update(Update.builder()
+                        .tableName(TABLE_NAME)
+                        .key(key(userId))
+                        .updateExpression(expressions.updateExpression)
+                        .conditionExpression(ITEM_EXISTS)
+                        .expressionAttributeNames(expressions.names)
+                        .expressionAttributeValues(expressions.values)
+                        .build())
+                .build();
+    }
+
+    /**
+     * The delta as a standalone UpdateItem, for writes that cannot be transactional
+     */
+    UpdateItemRequest toUpdateItemRequest(String userId) {
+        Expressions expressions = expressions();
+        return UpdateItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .key(key(userId))
+                .updateExpression(expressions.updateExpression)
+                .conditionExpression(ITEM_EXISTS)
+                .expressionAttributeNames(expressions.names)
+                .expressionAttributeValues(expressions.values)
+                .build();
+    }
+
+    /**
+     * The put that seeds a user's stats item from a full count. Without
+     * overwrite it only creates a missing item, so a seed that loses the race
+     * to another writer fails and the caller reads that item back.
+     */
+    static PutItemEnhancedRequest<UserTaskStats> seedRequest(UserTaskStats counters, boolean overwrite) {
+        PutItemEnhancedRequest.Builder<UserTaskStats> put = PutItemEnhancedRequest.builder(UserTaskStats.class)
+                .item(counters);
+        if (!overwrite) {
+            put.conditionExpression(Expression.builder().expression("attribute_not_exists(userId)").build());
+        }
+        return put.build();
+    }
+
+    static String counterAttribute(TaskStatus status) {
+        switch (status) {
+            case PENDING:
+                return "pendingTasks";
+            case IN_PROGRESS:
+                return "inProgressTasks";
+            case COMPLETED:
+                return "completedTasks";
+            default:
+                throw new IllegalArgumentException("Unknown status: " + status);
+        }
+    }
+
+    static Map<String, AttributeValue> key(String userId) {
+        return Map.of("userId", AttributeValue.builder().s(userId).build());
+    }
+
+    private TaskStatsDelta apply(TaskStatus status, boolean deleted, long sign) {
+        if (deleted || status == null) {
+            return this;
+        }
+        counters.merge("totalTasks", sign, Long::sum);
+        counters.merge(counterAttribute(status), sign, Long::sum);
+        return this;
+    }
+
+    private Expressions expressions() {
+        Expressions expressions = new Expressions();
+        List<String> actions = new ArrayList<>();
+        int i = 0;
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            if (counter.getValue() == 0) {
+                continue;
+            }
+            actions.add("#c" + i + " :d" + i);
+            expressions.names.put("#c" + i, counter.getKey());
+            expressions.values.put(":d" + i, AttributeValue.builder().n(counter.getValue().toString()).build());
+            i++;
+        }
+        expressions.updateExpression = "ADD " + String.join(", ", actions);
+        return expressions;
+    }
+
+    private static final class Expressions {
+        private String updateExpression;
+        private final Map<String, String> names = new HashMap<>();
+        private final Map<String, AttributeValue> values = new HashMap<>();
+    }
+}
@@ -1,20 +1,36 @@
 package com.todoapp.repository;
 
 import com.todoapp.model.User;
+import com.todoapp.model.UserEmail;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactPutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
  * Repository for User operations with DynamoDB
@@ -23,13 +39,32 @@ public class UserRepository {
     
     private static final Logger logger = LoggerFactory.getLogger(UserRepository.class);
     private static final String TABLE_NAME = "Users";
+    private static final String EMAIL_TABLE_NAME = "UserEmails";
+    
+    // Users read per scan page while backfilling email lookups
+    private static final int BACKFILL_PAGE_SIZE = 100;
     
     private final DynamoDbEnhancedClient enhancedClient;
+    private final DynamoDbClient dynamoDbClient;
     private final DynamoDbTable<User> userTable;
+    private final DynamoDbTable<UserEmail> emailTable;
+    private final ParallelScanner parallelScanner;
+    
+    // Scan for users without a lookup item while the backfill is still running
+    private final boolean emailScanFallback;
+
+    public UserRepository(DynamoDbEnhancedClient enhancedClient, DynamoDbClient dynamoDbClient) {
+        this(enhancedClient, dynamoDbClient, new ParallelScanner());
+    }
 
-    public UserRepository(DynamoDbEnhancedClient enhancedClient) {
+    public UserRepository(DynamoDbEnhancedClient enhancedClient, DynamoDbClient dynamoDbClient,
+                          ParallelScanner parallelScanner) {
         this.enhancedClient = enhancedClient;
+        this.dynamoDbClient = dynamoDbClient;
+        this.parallelScanner = parallelScanner;
         this.userTable = enhancedClient.table(TABLE_NAME, TableSchema.fromBean(User.class));
+        this.emailTable = enhancedClient.table(EMAIL_TABLE_NAME, TableSchema.fromBean(UserEmail.class));
+        this.emailScanFallback = Boolean.parseBoolean(System.getenv("EMAIL_LOOKUP_SCAN_FALLBACK"));
     }
 
     /**
@@ -39,6 +74,7 @@ public class UserRepository {
         try {
             logger.info("Saving user with ID: {}", user.getUserId());
             userTable.putItem(user);
+            user.setVersion(nextVersion(user.getVersion()));
             logger.info("User saved successfully: {}", user.getUserId());
             return user;
         } catch (Exception e) {
@@ -47,6 +83,64 @@ public class UserRepository {
         }
     }
 
+    /**
+     * Create a new user and claim its email in a single transaction.
+     * Fails with "Email already registered" if the email lookup item already exists.
+     */
+    public User create(User user) {
+        try {
+            logger.info("Creating user with ID: {}", user.getUserId());
+            
+            Expression userNotExists = Expression.builder()
+                .expression("attribute_not_exists(userId)")
+                .build();
+            Expression emailNotExists = Expression.builder()
+                .expression("attribute_not_exists(email)")
+                .build();
+            
+            enhancedClient.transactWriteItems(TransactWriteItemsEnhancedRequest.builder()
+                .addPutItem(userTable, TransactPutItemEnhancedRequest.builder(User.class)
+                    .item(user)
+                    .conditionExpression(userNotExists)
+                    .build())
+                .addPutItem(emailTable, TransactPutItemEnhancedRequest.builder(UserEmail.class)
+                    .item(new UserEmail(user.getEmail(), user.getUserId()))
+                    .conditionExpression(emailNotExists)
+                    .build())
+                .build());
+            
+            user.setVersion(nextVersion(user.getVersion()));
+            logger.info("User created successfully: {}", user.getUserId());
+            return user;
+        } catch (TransactionCanceledException e) {
+            if (isConditionalCheckFailure(e, 1)) {
+                logger.warn("User creation failed - email already registered: {}", user.getEmail());
+                throw new RuntimeException("Email already registered", e);
+            }
+            logger.error("Error creating user {}: {}", user.getUserId(), e.getMessage(), e);
+            throw new RuntimeException("Failed to create user", e);
+        } catch (Exception e) {
+            logger.error("Error creating user {}: {}", user.getUserId(), e.getMessage(), e);
+            throw new RuntimeException("Failed to create user", e);
+        }
+    }
+
+    /**
+     * The version the VersionedRecordExtension writes for a bean read at the given version
+     */
+    private static Long nextVersion(Long version) {
+        return version == null ? 1L : version + 1;
+    }
+
+    /**
+     * Check whether a transaction was cancelled by the condition on the given item
+     */
+    private static boolean isConditionalCheckFailure(TransactionCanceledException e, int itemIndex) {
+        List<CancellationReason> reasons = e.cancellationReasons();
+        return reasons != null && reasons.size() > itemIndex
+                && "ConditionalCheckFailed".equals(reasons.get(itemIndex).code());
+    }
+
     /**
      * Find user by ID
      */
@@ -70,29 +164,30 @@ public class UserRepository {
     }
 
     /**
-     * Find user by email using scan operation
-     * Note: This is not efficient for large datasets. Consider using GSI for production.
+     * Find user by email through the UserEmails lookup table
      */
     public Optional<User> findByEmail(String email) {
         try {
             logger.info("Finding user by email: {}", email);
             
-            // Using scan with filter expression
-            Expression filterExpression = Expression.builder()
-                .expression("email = :email AND isActive = :active")
-                .putExpressionValue(":email", AttributeValue.builder().s(email).build())
-                .putExpressionValue(":active", AttributeValue.builder().bool(true).build())
-                .build();
+            String normalizedEmail = UserEmail.normalize(email);
+            UserEmail lookup = emailTable.getItem(Key.builder().partitionValue(normalizedEmail).build());
             
-            List<User> users = userTable.scan(builder -> builder
-                .filterExpression(filterExpression)
-            ).items().stream().collect(Collectors.toList());
-
-            if (!users.isEmpty()) {
+            if (lookup == null) {
+                if (emailScanFallback) {
+                    return findByEmailScan(email);
+                }
+                logger.info("User not found by email: {}", email);
+                return Optional.empty();
+            }
+            
+            User user = userTable.getItem(Key.builder().partitionValue(lookup.getUserId()).build());
+            
+            if (user != null && user.isActive() && normalizedEmail.equals(UserEmail.normalize(user.getEmail()))) {
                 logger.info("User found by email: {}", email);
-                return Optional.of(users.get(0));
+                return Optional.of(user);
             } else {
-                logger.info("User not found by email: {}", email);
+                logger.info("User not found or inactive by email: {}", email);
                 return Optional.empty();
             }
         } catch (Exception e) {
@@ -102,45 +197,205 @@ public class UserRepository {
     }
 
     /**
-     * Update user
+     * Find user by email using scan operation, writing the missing lookup item on a hit.
+     * Only used while EMAIL_LOOKUP_SCAN_FALLBACK is enabled during the backfill.
+     * Users stored before emails were normalized may differ in case or
+     * whitespace, which a filter expression cannot ignore, so emails are
+     * compared normalized here; the scan stops at the first match.
      */
-    public User update(User user) {
+    private Optional<User> findByEmailScan(String email) {
+        logger.info("Email lookup missing, scanning for user by email: {}", email);
+        
+        String normalizedEmail = UserEmail.normalize(email);
+        Expression filterExpression = Expression.builder()
+            .expression("isActive = :active")
+            .putExpressionValue(":active", AttributeValue.builder().bool(true).build())
+            .build();
+        
+        Optional<User> found = userTable.scan(builder -> builder
+            .filterExpression(filterExpression)
+        ).items().stream()
+            .filter(candidate -> normalizedEmail.equals(UserEmail.normalize(candidate.getEmail())))
+            .findFirst();
+
+        if (found.isEmpty()) {
+            logger.info("User not found by email: {}", email);
+            return Optional.empty();
+        }
+        
+        User user = found.get();
+        putEmailLookupIfAbsent(user);
+        logger.info("User found by email scan: {}", email);
+        return Optional.of(user);
+    }
+
+    /**
+     * Write the lookup item for a user unless one already exists for the email
+     */
+    private boolean putEmailLookupIfAbsent(User user) {
+        Expression notExists = Expression.builder()
+            .expression("attribute_not_exists(email)")
+            .build();
+        
         try {
-            logger.info("Updating user: {}", user.getUserId());
-            user.updateTimestamp();
-            userTable.putItem(user);
-            logger.info("User updated successfully: {}", user.getUserId());
-            return user;
+            emailTable.putItem(PutItemEnhancedRequest.builder(UserEmail.class)
+                .item(new UserEmail(user.getEmail(), user.getUserId()))
+                .conditionExpression(notExists)
+                .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Create missing email lookup items for existing users, one bounded batch
+     * at a time. Safe to run online: existing lookup items are never overwritten.
+     */
+    public BackfillResult backfillEmailLookups(String startUserId, int maxUsers) {
+        try {
+            logger.info("Backfilling email lookups from user: {} (max: {})", startUserId, maxUsers);
+            
+            ScanEnhancedRequest.Builder scanRequest = ScanEnhancedRequest.builder()
+                .limit(BACKFILL_PAGE_SIZE);
+            if (startUserId != null && !startUserId.trim().isEmpty()) {
+                scanRequest.exclusiveStartKey(Map.of("userId", AttributeValue.builder().s(startUserId).build()));
+            }
+            
+            long scanned = 0;
+            long created = 0;
+            String lastUserId = null;
+            
+            Iterator<Page<User>> pages = userTable.scan(scanRequest.build()).iterator();
+            while (pages.hasNext()) {
+                Page<User> page = pages.next();
+                for (User user : page.items()) {
+                    scanned++;
+                    if (user.getEmail() != null && putEmailLookupIfAbsent(user)) {
+                        created++;
+                    }
+                }
+                
+                Map<String, AttributeValue> lastKey = page.lastEvaluatedKey();
+                lastUserId = lastKey == null || lastKey.isEmpty() ? null : lastKey.get("userId").s();
+                if (lastUserId == null || scanned >= maxUsers) {
+                    break;
+                }
+            }
+            
+            logger.info("Email lookup backfill batch done: scanned {}, created {}, next start: {}", 
+                    scanned, created, lastUserId);
+            return new BackfillResult(scanned, created, lastUserId);
+        } catch (Exception e) {
+            logger.error("Error backfilling email lookups: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to backfill email lookups", e);
+        }
+    }
+
+    /**
+     * Replace a user's password hash with a narrow UpdateItem, only if the
+     * stored hash is still the one the caller verified. Like the other
+     * updates to an existing user, it leaves lastLoginAt (written behind by
+     * {@link #updateLastLogin}) as stored.
+     *
+     * @return false if the user no longer exists or the hash has changed
+     */
+    public boolean updatePasswordHash(String userId, String expectedHash, String newHash) {
+        try {
+            logger.info("Updating password hash for user: {}", userId);
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(Map.of("userId", AttributeValue.builder().s(userId).build()))
+                    .updateExpression("SET passwordHash = :newHash, updatedAt = :updatedAt, "
+                            + "#version = if_not_exists(#version, :zero) + :one")
+                    .conditionExpression("attribute_exists(userId) AND passwordHash = :expectedHash")
+                    .expressionAttributeNames(Map.of("#version", "version"))
+                    .expressionAttributeValues(Map.of(
+                            ":newHash", AttributeValue.builder().s(newHash).build(),
+                            ":expectedHash", AttributeValue.builder().s(expectedHash).build(),
+                            ":updatedAt", AttributeValue.builder().s(Instant.now().toString()).build(),
+                            ":zero", AttributeValue.builder().n("0").build(),
+                            ":one", AttributeValue.builder().n("1").build()))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            logger.warn("Skipped password hash update for user {}: user missing or hash changed", userId);
+            return false;
         } catch (Exception e) {
-            logger.error("Error updating user {}: {}", user.getUserId(), e.getMessage(), e);
+            logger.error("Error updating password hash for user {}: {}", userId, e.getMessage(), e);
             throw new RuntimeException("Failed to update user", e);
         }
     }
 
     /**
-     * Soft delete user by marking as inactive
+     * Set a user's last login time with a narrow UpdateItem. Does not touch the
+     * version, so it never conflicts with full-item writes.
+     *
+     * @return false if the user no longer exists
+     */
+    public boolean updateLastLogin(String userId, Instant lastLoginAt) {
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(Map.of("userId", AttributeValue.builder().s(userId).build()))
+                    .updateExpression("SET lastLoginAt = :lastLoginAt")
+                    .conditionExpression("attribute_exists(userId)")
+                    .expressionAttributeValues(Map.of(
+                            ":lastLoginAt", AttributeValue.builder().s(lastLoginAt.toString()).build()))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            logger.warn("Skipped last login update for missing user: {}", userId);
+            return false;
+        } catch (Exception e) {
+            logger.error("Error updating last login for user {}: {}", userId, e.getMessage(), e);
+            throw new RuntimeException("Failed to update last login", e);
+        }
+    }
+
+    /**
+     * Soft delete user by marking as inactive, with a narrow UpdateItem
      */
     public void delete(String userId) {
         try {
             logger.info("Soft deleting user: {}", userId);
-            Optional<User> userOpt = findById(userId);
-            
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                user.setActive(false);
-                user.updateTimestamp();
-                userTable.putItem(user);
-                logger.info("User soft deleted successfully: {}", userId);
-            } else {
-                logger.warn("User not found for deletion: {}", userId);
-                throw new RuntimeException("User not found");
-            }
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(Map.of("userId", AttributeValue.builder().s(userId).build()))
+                    .updateExpression("SET isActive = :inactive, updatedAt = :updatedAt, "
+                            + "#version = if_not_exists(#version, :zero) + :one")
+                    .conditionExpression("attribute_exists(userId)")
+                    .expressionAttributeNames(Map.of("#version", "version"))
+                    .expressionAttributeValues(Map.of(
+                            ":inactive", AttributeValue.builder().bool(false).build(),
+                            ":updatedAt", AttributeValue.builder().s(Instant.now().toString()).build(),
+                            ":zero", AttributeValue.builder().n("0").build(),
+                            ":one", AttributeValue.builder().n("1").build()))
+                    .build());
+            logger.info("User soft deleted successfully: {}", userId);
+        } catch (ConditionalCheckFailedException e) {
+            logger.warn("User not found for deletion: {}", userId);
+            throw new RuntimeException("User not found", e);
         } catch (Exception e) {
             logger.error("Error deleting user {}: {}", userId, e.getMessage(), e);
             throw new RuntimeException("Failed to delete user", e);
         }
     }
 
+    /**
+     * Check whether an email is claimed by a UserEmails lookup item. One GetItem,
+     * used to reject duplicate sign-ups early; {@link #create} stays the
+     * authoritative check.
+     */
+    public boolean isEmailClaimed(String email) {
+        try {
+            return emailTable.getItem(Key.builder().partitionValue(UserEmail.normalize(email)).build()) != null;
+        } catch (Exception e) {
+            logger.error("Error checking email lookup {}: {}", email, e.getMessage(), e);
+            throw new RuntimeException("Failed to check email existence", e);
+        }
+    }
+
     /**
      * Check if email exists
      */
@@ -157,20 +412,52 @@ public class UserRepository {
      * Get all active users (for admin purposes)
      */
     public List<User> findAllActive() {
+        List<User> users = Collections.synchronizedList(new ArrayList<>());
+        forEachActive(users::add);
+        return new ArrayList<>(users);
+    }
+
+    /**
+     * Stream all active users to a thread-safe consumer with a segmented
+     * parallel scan, without holding the whole table in memory
+     *
+     * @return number of active users passed to the consumer
+     */
+    public long forEachActive(Consumer<User> consumer) {
         try {
-            logger.info("Finding all active users");
+            logger.info("Scanning all active users");
             
             Expression filterExpression = Expression.builder()
                 .expression("isActive = :active")
                 .putExpressionValue(":active", AttributeValue.builder().bool(true).build())
                 .build();
             
-            return userTable.scan(builder -> builder
+            return parallelScanner.scan(userTable, ScanEnhancedRequest.builder()
                 .filterExpression(filterExpression)
-            ).items().stream().collect(Collectors.toList());
+                .build(), consumer);
         } catch (Exception e) {
             logger.error("Error finding all active users: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to find all active users", e);
         }
     }
+
+    /**
+     * Result of one email lookup backfill batch
+     */
+    public static class BackfillResult {
+        private final long scannedUsers;
+        private final long createdLookups;
+        private final String nextStartUserId;
+
+        public BackfillResult(long scannedUsers, long createdLookups, String nextStartUserId) {
+            this.scannedUsers = scannedUsers;
+            this.createdLookups = createdLookups;
+            this.nextStartUserId = nextStartUserId;
+        }
+
+        public long getScannedUsers() { return scannedUsers; }
+        public long getCreatedLookups() { return createdLookups; }
+        public String getNextStartUserId() { return nextStartUserId; }
+        public boolean isComplete() { return nextStartUserId == null; }
+    }
 }
@@ -1,16 +1,19 @@
 package com.todoapp.service;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
 import com.todoapp.dto.AuthResponse;
 import com.todoapp.dto.LoginRequest;
 import com.todoapp.dto.RegisterRequest;
 import com.todoapp.model.User;
 import com.todoapp.repository.UserRepository;
+import com.todoapp.util.TtlCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Service for user authentication operations
@@ -22,12 +25,74 @@ public class AuthService {
     private final UserRepository userRepository;
     private final JwtService jwtService;
     
-    // BCrypt cost factor (higher is more secure but slower)
-    private static final int BCRYPT_COST = 12;
+    // BCrypt at the configured or calibrated cost; hashes at other costs are upgraded on login
+    private final PasswordHasher passwordHasher;
+    
+    // Bounded pool all BCrypt work runs on, so login load cannot starve request threads
+    private final PasswordHashingExecutor hashingExecutor;
+    
+    // Last-login writes are buffered and flushed off the response path
+    private final UserMetadataBuffer metadataBuffer;
+    private final ExecutorService rehashExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "password-rehash");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Active-user checks in validateToken; unknown or inactive users are cached for less time.
+    // Invalidation on deactivation or a password change only reaches this container: others
+    // keep answering "active" until their entry expires, i.e. for up to USER_CACHE_TTL_MILLIS.
+    private static final int USER_CACHE_MAX_ENTRIES = 10000;
+    private static final long DEFAULT_USER_CACHE_TTL_MILLIS = 30000;
+    private static final long DEFAULT_USER_CACHE_NEGATIVE_TTL_MILLIS = 5000;
+    
+    private final TtlCache<String, Boolean> activeUserCache;
+    private final long negativeTtlMillis;
+    
+    // Stateless mode trusts the JWT unless the revocation filter flags the user
+    private final RevocationService revocationService;
+    private final boolean statelessAuth;
+    
+    // Failed-login limiter consulted before the user lookup and BCrypt; null disables throttling
+    private final LoginThrottle loginThrottle;
 
     public AuthService(UserRepository userRepository, JwtService jwtService) {
+        this(userRepository, jwtService, null, null);
+    }
+
+    public AuthService(UserRepository userRepository, JwtService jwtService, RevocationService revocationService,
+                       LoginThrottle loginThrottle) {
+        this(userRepository, jwtService, revocationService, loginThrottle, new PasswordHasher(),
+             new PasswordHashingExecutor(), new UserMetadataBuffer(userRepository));
+    }
+
+    public AuthService(UserRepository userRepository, JwtService jwtService, RevocationService revocationService,
+                       LoginThrottle loginThrottle, PasswordHasher passwordHasher,
+                       PasswordHashingExecutor hashingExecutor, UserMetadataBuffer metadataBuffer) {
+        this(userRepository, jwtService, revocationService, loginThrottle, passwordHasher, hashingExecutor,
+             metadataBuffer,
+             revocationService != null && "stateless".equalsIgnoreCase(System.getenv("AUTH_MODE")),
+             longFromEnv("USER_CACHE_TTL_MILLIS", DEFAULT_USER_CACHE_TTL_MILLIS),
+             longFromEnv("USER_CACHE_NEGATIVE_TTL_MILLIS", DEFAULT_USER_CACHE_NEGATIVE_TTL_MILLIS));
+    }
+
+    public AuthService(UserRepository userRepository, JwtService jwtService, RevocationService revocationService,
+                       LoginThrottle loginThrottle, PasswordHasher passwordHasher,
+                       PasswordHashingExecutor hashingExecutor, UserMetadataBuffer metadataBuffer,
+                       boolean statelessAuth, long userCacheTtlMillis, long negativeTtlMillis) {
+        if (statelessAuth && revocationService == null) {
+            throw new IllegalArgumentException("Stateless auth requires a revocation service");
+        }
         this.userRepository = userRepository;
         this.jwtService = jwtService;
+        this.revocationService = revocationService;
+        this.statelessAuth = statelessAuth;
+        this.loginThrottle = loginThrottle;
+        this.passwordHasher = passwordHasher;
+        this.hashingExecutor = hashingExecutor;
+        this.metadataBuffer = metadataBuffer;
+        this.activeUserCache = new TtlCache<>(USER_CACHE_MAX_ENTRIES, userCacheTtlMillis);
+        this.negativeTtlMillis = negativeTtlMillis;
     }
 
     /**
@@ -37,9 +102,9 @@ public class AuthService {
         try {
             logger.info("Attempting to register user with email: {}", request.getEmail());
             
-            // Check if user already exists
-            if (userRepository.existsByEmail(request.getEmail())) {
-                logger.warn("Registration failed - email already exists: {}", request.getEmail());
+            // Reject a taken email before paying for the hash; the create below still guards races
+            if (userRepository.isEmailClaimed(request.getEmail())) {
+                logger.warn("Registration rejected - email already registered: {}", request.getEmail());
                 throw new RuntimeException("Email already registered");
             }
             
@@ -58,8 +123,8 @@ public class AuthService {
                     request.getLastName()
             );
             
-            // Save user
-            userRepository.save(user);
+            // Create user and claim the email atomically; fails if the email is taken
+            userRepository.create(user);
             
             // Generate JWT token
             String token = jwtService.generateToken(
@@ -90,25 +155,48 @@ public class AuthService {
      * Authenticate user login
      */
     public AuthResponse login(LoginRequest request) {
+        return login(request, null);
+    }
+
+    /**
+     * Authenticate user login, throttling failed attempts per email and per source IP
+     */
+    public AuthResponse login(LoginRequest request, String sourceIp) {
         try {
             logger.info("Attempting to login user with email: {}", request.getEmail());
             
+            // Resume flushing last logins left pending while the container was frozen
+            metadataBuffer.flushIfStale();
+            
+            // Reject throttled attempts before paying for the user lookup and BCrypt
+            if (loginThrottle != null && loginThrottle.isThrottled(request.getEmail(), sourceIp)) {
+                logger.warn("Login throttled for email {} from {}", request.getEmail(), sourceIp);
+                throw new RuntimeException("Too many login attempts");
+            }
+            
             // Find user by email
             Optional<User> userOpt = userRepository.findByEmail(request.getEmail());
             
             if (!userOpt.isPresent()) {
                 logger.warn("Login failed - user not found: {}", request.getEmail());
+                recordLoginFailure(request.getEmail(), sourceIp);
                 throw new RuntimeException("Invalid email or password");
             }
             
             User user = userOpt.get();
             
             // Verify password
-            if (!verifyPassword(request.getPassword(), user.getPasswordHash())) {
+            PasswordHasher.Verification verification = verify(request.getPassword(), user.getPasswordHash());
+            if (!verification.isVerified()) {
                 logger.warn("Login failed - invalid password for user: {}", request.getEmail());
+                recordLoginFailure(request.getEmail(), sourceIp);
                 throw new RuntimeException("Invalid email or password");
             }
             
+            if (loginThrottle != null) {
+                loginThrottle.recordSuccess(request.getEmail());
+            }
+            
             // Check if user is active
             if (!user.isActive()) {
                 logger.warn("Login failed - user account is inactive: {}", request.getEmail());
@@ -123,9 +211,12 @@ public class AuthService {
                     user.getLastName()
             );
             
-            // Update last login timestamp
-            user.updateTimestamp();
-            userRepository.update(user);
+            // Record last login through the write-behind buffer instead of a full put
+            metadataBuffer.recordLogin(user.getUserId(), Instant.now());
+            
+            if (verification == PasswordHasher.Verification.VERIFIED_NEEDS_REHASH) {
+                rehashInBackground(user.getUserId(), user.getPasswordHash(), request.getPassword());
+            }
             
             logger.info("User logged in successfully: {}", user.getUserId());
             
@@ -159,9 +250,14 @@ public class AuthService {
             // Validate token and extract user info
             JwtService.UserInfo userInfo = jwtService.getUserInfoFromToken(token);
             
+            // Stateless mode: a user absent from the revocation filter is accepted on the JWT alone
+            if (statelessAuth && !revocationService.mightBeRevoked(userInfo.getUserId())) {
+                logger.info("Token validated statelessly for user: {}", userInfo.getUserId());
+                return userInfo;
+            }
+            
             // Verify user still exists and is active
-            Optional<User> userOpt = userRepository.findById(userInfo.getUserId());
-            if (!userOpt.isPresent() || !userOpt.get().isActive()) {
+            if (!isActiveUser(userInfo.getUserId())) {
                 logger.warn("Token validation failed - user not found or inactive: {}", userInfo.getUserId());
                 throw new RuntimeException("Invalid token - user not found or inactive");
             }
@@ -175,6 +271,47 @@ public class AuthService {
         }
     }
 
+    /**
+     * Repeat the per-user part of validateToken for a token whose signature
+     * and expiry were already verified, e.g. by a cached authorizer decision.
+     * Subject to the same bounds: a user deactivated through another
+     * container is still reported active for up to the active-user cache TTL
+     * (USER_CACHE_TTL_MILLIS, 30 s by default), or in stateless mode up to
+     * the revocation filter refresh interval (REVOCATION_REFRESH_MILLIS, 60 s).
+     */
+    public boolean isUserStillAuthorized(String userId) {
+        if (statelessAuth && !revocationService.mightBeRevoked(userId)) {
+            return true;
+        }
+        return isActiveUser(userId);
+    }
+
+    private void recordLoginFailure(String email, String sourceIp) {
+        if (loginThrottle != null) {
+            loginThrottle.recordFailure(email, sourceIp);
+        }
+    }
+
+    /**
+     * Check that a user exists and is active, served from the short-lived
+     * active-user cache when possible
+     */
+    private boolean isActiveUser(String userId) {
+        Boolean cached = activeUserCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Optional<User> userOpt = userRepository.findById(userId);
+        boolean active = userOpt.isPresent() && userOpt.get().isActive();
+        if (active) {
+            activeUserCache.put(userId, true);
+        } else {
+            activeUserCache.put(userId, false, negativeTtlMillis);
+        }
+        return active;
+    }
+
     /**
      * Change user password
      */
@@ -192,7 +329,7 @@ public class AuthService {
             User user = userOpt.get();
             
             // Verify old password
-            if (!verifyPassword(oldPassword, user.getPasswordHash())) {
+            if (!verify(oldPassword, user.getPasswordHash()).isVerified()) {
                 logger.warn("Password change failed - invalid old password for user: {}", userId);
                 throw new RuntimeException("Invalid old password");
             }
@@ -200,10 +337,11 @@ public class AuthService {
             // Hash new password
             String newPasswordHash = hashPassword(newPassword);
             
-            // Update user
-            user.setPasswordHash(newPasswordHash);
-            user.updateTimestamp();
-            userRepository.update(user);
+            // Update only the hash, and only if it is still the one just verified
+            if (!userRepository.updatePasswordHash(userId, user.getPasswordHash(), newPasswordHash)) {
+                throw new RuntimeException("Version conflict");
+            }
+            activeUserCache.invalidate(userId);
             
             logger.info("Password changed successfully for user: {}", userId);
             
@@ -226,10 +364,14 @@ public class AuthService {
                 throw new RuntimeException("User not found");
             }
             
-            User user = userOpt.get();
-            user.setActive(false);
-            user.updateTimestamp();
-            userRepository.update(user);
+            // Revoke first: a revoked but still active user only costs a user lookup,
+            // while a deactivated but unrevoked one would pass stateless checks
+            if (revocationService != null) {
+                revocationService.revoke(userId);
+            }
+            
+            userRepository.delete(userId);
+            activeUserCache.invalidate(userId);
             
             logger.info("Account deactivated successfully for user: {}", userId);
             
@@ -240,27 +382,56 @@ public class AuthService {
     }
 
     /**
-     * Hash password using BCrypt
+     * Upgrade a verified hash to the current cost off the response path. The new
+     * hash is only written if the stored one is unchanged since login read it.
+     */
+    private void rehashInBackground(String userId, String oldHash, String password) {
+        rehashExecutor.execute(() -> {
+            try {
+                String newHash = hashPassword(password);
+                if (!userRepository.updatePasswordHash(userId, oldHash, newHash)) {
+                    logger.info("Skipped password rehash for user {}: hash changed since login", userId);
+                    return;
+                }
+                logger.info("Rehashed password for user {} at cost {}", userId, passwordHasher.getCost());
+            } catch (RuntimeException e) {
+                // The old hash still verifies; the next login retries the upgrade
+                logger.warn("Password rehash failed for user {}: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Hash password using BCrypt on the hashing pool
      */
     private String hashPassword(String password) {
-        try {
-            return BCrypt.withDefaults().hashToString(BCRYPT_COST, password.toCharArray());
-        } catch (Exception e) {
-            logger.error("Error hashing password: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to hash password", e);
-        }
+        return hashingExecutor.execute(() -> {
+            try {
+                return passwordHasher.hash(password);
+            } catch (Exception e) {
+                logger.error("Error hashing password: {}", e.getMessage(), e);
+                throw new RuntimeException("Failed to hash password", e);
+            }
+        });
     }
 
     /**
-     * Verify password against hash using BCrypt
+     * Verify password against hash using BCrypt on the hashing pool. A busy pool
+     * fails the call rather than reporting a wrong password.
      */
-    private boolean verifyPassword(String password, String hash) {
-        try {
-            BCrypt.Result result = BCrypt.verifyer().verify(password.toCharArray(), hash);
-            return result.verified;
-        } catch (Exception e) {
-            logger.error("Error verifying password: {}", e.getMessage(), e);
-            return false;
-        }
+    private PasswordHasher.Verification verify(String password, String hash) {
+        return hashingExecutor.execute(() -> {
+            try {
+                return passwordHasher.verify(password, hash);
+            } catch (Exception e) {
+                logger.error("Error verifying password: {}", e.getMessage(), e);
+                return PasswordHasher.Verification.FAILED;
+            }
+        });
+    }
+
+    private static long longFromEnv(String name, long defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Long.parseLong(value.trim());
     }
 }
@@ -145,7 +145,8 @@ public class JwtService {
                     decodedJWT.getClaim(USER_ID_CLAIM).asString(),
                     decodedJWT.getClaim(EMAIL_CLAIM).asString(),
                     decodedJWT.getClaim(FIRST_NAME_CLAIM).asString(),
-                    decodedJWT.getClaim(LAST_NAME_CLAIM).asString()
+                    decodedJWT.getClaim(LAST_NAME_CLAIM).asString(),
+                    decodedJWT.getExpiresAt() != null ? decodedJWT.getExpiresAt().toInstant() : null
             );
         } catch (Exception e) {
             logger.error("Error extracting user info from token: {}", e.getMessage(), e);
@@ -161,18 +162,25 @@ public class JwtService {
         private final String email;
         private final String firstName;
         private final String lastName;
+        private final Instant expiresAt;
 
         public UserInfo(String userId, String email, String firstName, String lastName) {
+            this(userId, email, firstName, lastName, null);
+        }
+
+        public UserInfo(String userId, String email, String firstName, String lastName, Instant expiresAt) {
             this.userId = userId;
             this.email = email;
             this.firstName = firstName;
             this.lastName = lastName;
+            this.expiresAt = expiresAt;
         }
 
         public String getUserId() { return userId; }
         public String getEmail() { return email; }
         public String getFirstName() { return firstName; }
         public String getLastName() { return lastName; }
+        public Instant getExpiresAt() { return expiresAt; }
 
         @Override
         public String toString() {
@@ -0,0 +1,198 @@
+package com.todoapp.service;
+
+import com.todoapp.model.UserEmail;
+import com.todoapp.repository.LoginAttemptRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding-window limiter for failed logins, keyed by email and by source IP.
+ * Checks are answered from striped in-memory counters so throttled attempts
+ * are rejected before the user lookup and BCrypt. When a shared counter
+ * table is configured, failures are also counted there and a key found over
+ * its limit is blocked locally for the rest of the window.
+ */
+public class LoginThrottle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private static final long DEFAULT_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(15);
+    private static final int DEFAULT_MAX_FAILURES_PER_EMAIL = 10;
+    private static final int DEFAULT_MAX_FAILURES_PER_IP = 100;
+
+    // Stripes bound lock contention; each keeps at most this many keys (least recently used first out)
+    private static final int STRIPE_COUNT = 32;
+    private static final int MAX_KEYS_PER_STRIPE = 1024;
+
+    private final long windowMillis;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+    private final LoginAttemptRepository sharedCounters;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+
+    /**
+     * Configure from LOGIN_THROTTLE_WINDOW_SECONDS, LOGIN_THROTTLE_MAX_PER_EMAIL
+     * and LOGIN_THROTTLE_MAX_PER_IP
+     *
+     * @param sharedCounters cross-container counters, or null for in-memory only
+     */
+    public LoginThrottle(LoginAttemptRepository sharedCounters) {
+        this(TimeUnit.SECONDS.toMillis(longFromEnv("LOGIN_THROTTLE_WINDOW_SECONDS",
+                        TimeUnit.MILLISECONDS.toSeconds(DEFAULT_WINDOW_MILLIS))),
+             (int) longFromEnv("LOGIN_THROTTLE_MAX_PER_EMAIL", DEFAULT_MAX_FAILURES_PER_EMAIL),
+             (int) longFromEnv("LOGIN_THROTTLE_MAX_PER_IP", DEFAULT_MAX_FAILURES_PER_IP),
+             sharedCounters);
+    }
+
+    public LoginThrottle(long windowMillis, int maxFailuresPerEmail, int maxFailuresPerIp,
+                         LoginAttemptRepository sharedCounters) {
+        this(windowMillis, maxFailuresPerEmail, maxFailuresPerIp, sharedCounters, System::currentTimeMillis);
+    }
+
+    LoginThrottle(long windowMillis, int maxFailuresPerEmail, int maxFailuresPerIp,
+                  LoginAttemptRepository sharedCounters, LongSupplier clock) {
+        this.windowMillis = windowMillis;
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.sharedCounters = sharedCounters;
+        this.clock = clock;
+        this.stripes = new Stripe[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Whether a login for this email and source IP must be rejected without checking credentials
+     */
+    public boolean isThrottled(String email, String sourceIp) {
+        long now = clock.getAsLong();
+        return isOverLimit(emailKey(email), maxFailuresPerEmail, now)
+                || (sourceIp != null && isOverLimit(ipKey(sourceIp), maxFailuresPerIp, now));
+    }
+
+    /**
+     * Count a failed login against the email and the source IP
+     */
+    public void recordFailure(String email, String sourceIp) {
+        long now = clock.getAsLong();
+        recordFailure(emailKey(email), maxFailuresPerEmail, now);
+        if (sourceIp != null) {
+            recordFailure(ipKey(sourceIp), maxFailuresPerIp, now);
+        }
+    }
+
+    /**
+     * Clear the email's failures after a successful login (IP failures are kept)
+     */
+    public void recordSuccess(String email) {
+        String key = emailKey(email);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.windows.remove(key);
+        }
+    }
+
+    private boolean isOverLimit(String key, int limit, long now) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            SlidingWindow window = stripe.windows.get(key);
+            return window != null && window.isOverLimit(limit, now, windowMillis);
+        }
+    }
+
+    private void recordFailure(String key, int limit, long now) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.windows.computeIfAbsent(key, k -> new SlidingWindow()).increment(now, windowMillis);
+        }
+        
+        if (sharedCounters == null) {
+            return;
+        }
+        
+        long windowStart = now - now % windowMillis;
+        try {
+            long expiresAt = TimeUnit.MILLISECONDS.toSeconds(windowStart + 2 * windowMillis);
+            if (!sharedCounters.incrementIfBelow(key, windowStart, limit, expiresAt)) {
+                logger.warn("Login throttle key {} is over its shared limit, blocking for the window", key);
+                synchronized (stripe) {
+                    stripe.windows.computeIfAbsent(key, k -> new SlidingWindow()).blockedUntil = windowStart + windowMillis;
+                }
+            }
+        } catch (RuntimeException e) {
+            // The in-memory counters still apply when the shared table is unavailable
+            logger.warn("Failed to update shared login counter for {}: {}", key, e.getMessage());
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        return stripes[(key.hashCode() & Integer.MAX_VALUE) % STRIPE_COUNT];
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + UserEmail.normalize(email);
+    }
+
+    private static String ipKey(String sourceIp) {
+        return "ip:" + sourceIp;
+    }
+
+    private static long longFromEnv(String name, long defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    /**
+     * One lock-protected, size-bounded map of sliding windows
+     */
+    private static final class Stripe {
+        private final Map<String, SlidingWindow> windows = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SlidingWindow> eldest) {
+                return size() > MAX_KEYS_PER_STRIPE;
+            }
+        };
+    }
+
+    /**
+     * Sliding-window counter approximated from the current and previous fixed
+     * windows, weighting the previous one by how much of it still overlaps
+     */
+    private static final class SlidingWindow {
+        private long windowStart;
+        private int current;
+        private int previous;
+        private long blockedUntil;
+        
+        void increment(long now, long windowMillis) {
+            roll(now, windowMillis);
+            current++;
+        }
+        
+        boolean isOverLimit(int limit, long now, long windowMillis) {
+            if (now < blockedUntil) {
+                return true;
+            }
+            roll(now, windowMillis);
+            double previousWeight = 1.0 - (double) (now - windowStart) / windowMillis;
+            return previous * previousWeight + current >= limit;
+        }
+        
+        private void roll(long now, long windowMillis) {
+            long start = now - now % windowMillis;
+            if (start == windowStart) {
+                return;
+            }
+            previous = start - windowStart == windowMillis ? current : 0;
+            current = 0;
+            windowStart = start;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.todoapp.service;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt hashing at a configurable target cost. The cost is taken from
+ * BCRYPT_COST, or calibrated once against BCRYPT_TARGET_MILLIS by timing a
+ * hash at the minimum cost and doubling from there. Verification reports
+ * hashes that should be rehashed on login: with an explicit cost, any hash
+ * at a different cost, so lowering BCRYPT_COST also takes effect; otherwise
+ * only hashes at a lower cost, since calibrated containers on different
+ * hardware would keep rehashing each other's hashes.
+ */
+public class PasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    // Calibration never goes below MIN_COST, whatever the hardware
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 16;
+    private static final int DEFAULT_COST = 12;
+
+    private final int cost;
+    
+    // Whether the cost was configured exactly, rather than calibrated or defaulted
+    private final boolean exactCost;
+
+    /**
+     * Configure from BCRYPT_COST, else calibrate to BCRYPT_TARGET_MILLIS, else use the default cost
+     */
+    public PasswordHasher() {
+        this(costFromEnv(), isCostConfigured());
+    }
+
+    /**
+     * Hash at exactly the given cost
+     */
+    public PasswordHasher(int cost) {
+        this(cost, true);
+    }
+
+    public PasswordHasher(int cost, boolean exactCost) {
+        if (cost < MIN_COST || cost > MAX_COST) {
+            throw new IllegalArgumentException("BCrypt cost must be between " + MIN_COST + " and " + MAX_COST);
+        }
+        this.cost = cost;
+        this.exactCost = exactCost;
+        logger.info("Using BCrypt cost {}{}", cost, exactCost ? "" : " (minimum)");
+    }
+
+    /**
+     * The cost new hashes are created with
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Hash a password at the target cost
+     */
+    public String hash(String password) {
+        return BCrypt.withDefaults().hashToString(cost, password.toCharArray());
+    }
+
+    /**
+     * Verify a password against a hash; unparseable hashes fail verification.
+     * Hashes at another cost need a rehash, or only lower ones for an inexact cost.
+     */
+    public Verification verify(String password, String hash) {
+        BCrypt.Result result = BCrypt.verifyer().verify(password.toCharArray(), hash);
+        if (!result.validFormat || !result.verified) {
+            return Verification.FAILED;
+        }
+        boolean current = exactCost ? result.details.cost == cost : result.details.cost >= cost;
+        return current ? Verification.VERIFIED : Verification.VERIFIED_NEEDS_REHASH;
+    }
+
+    /**
+     * Highest cost whose hash time stays within the target, extrapolated from
+     * one timed hash at MIN_COST (each cost step doubles the work)
+     */
+    public static int calibrate(long targetMillis) {
+        // Warm up so the timed run is not dominated by class loading and JIT
+        BCrypt.withDefaults().hash(4, "calibration".toCharArray());
+
+        long start = System.nanoTime();
+        BCrypt.withDefaults().hash(MIN_COST, "calibration".toCharArray());
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        int calibrated = MIN_COST;
+        while (calibrated < MAX_COST && elapsedMillis * 2 <= targetMillis) {
+            elapsedMillis *= 2;
+            calibrated++;
+        }
+        logger.info("Calibrated BCrypt cost {} for a {} ms target (estimated {} ms per hash)",
+                calibrated, targetMillis, elapsedMillis);
+        return calibrated;
+    }
+
+    private static boolean isCostConfigured() {
+        String cost = System.getenv("BCRYPT_COST");
+        return cost != null && !cost.trim().isEmpty();
+    }
+
+    private static int costFromEnv() {
+        if (isCostConfigured()) {
+            return Integer.parseInt(System.getenv("BCRYPT_COST").trim());
+        }
+        String targetMillis = System.getenv("BCRYPT_TARGET_MILLIS");
+        if (targetMillis != null && !targetMillis.trim().isEmpty()) {
+            return calibrate(Long.parseLong(targetMillis.trim()));
+        }
+        return DEFAULT_COST;
+    }
+
+    /**
+     * Outcome of a password verification
+     */
+    public enum Verification {
+        FAILED,
+        VERIFIED,
+        VERIFIED_NEEDS_REHASH;
+
+        public boolean isVerified() {
+            return this != FAILED;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.todoapp.service;
+
+import com.todoapp.util.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dedicated pool for BCrypt work, sized to a fraction of the cores so a login
+ * storm cannot starve the threads serving task requests. Work is queued FIFO
+ * in a bounded queue; submissions beyond it are rejected, and work still
+ * queued at its deadline is dropped without hashing. Both surface to callers
+ * as "Authentication service busy". The deadline bounds queueing only: work
+ * that starts in time runs to completion and the caller waits for it, since
+ * a started hash cannot be interrupted and abandoning it only wastes it.
+ * Queue and hash timings are logged at most once per stats interval.
+ */
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    static final String BUSY_MESSAGE = "Authentication service busy";
+
+    private static final double DEFAULT_CORE_FRACTION = 0.5;
+    private static final int DEFAULT_QUEUE_CAPACITY = 64;
+    private static final long DEFAULT_DEADLINE_MILLIS = 2000;
+    private static final long DEFAULT_STATS_INTERVAL_MILLIS = 60000;
+
+    private final ThreadPoolExecutor executor;
+    private final long deadlineNanos;
+    private final long statsIntervalNanos;
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram hashTime = new LatencyHistogram();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong statsLoggedAt = new AtomicLong(System.nanoTime());
+
+    /**
+     * Configure from PASSWORD_HASH_CORE_FRACTION, PASSWORD_HASH_QUEUE_CAPACITY
+     * PASSWORD_HASH_DEADLINE_MILLIS and PASSWORD_HASH_STATS_INTERVAL_MILLIS
+     */
+    public PasswordHashingExecutor() {
+        this(threadsFor(doubleFromEnv("PASSWORD_HASH_CORE_FRACTION", DEFAULT_CORE_FRACTION)),
+             (int) longFromEnv("PASSWORD_HASH_QUEUE_CAPACITY", DEFAULT_QUEUE_CAPACITY),
+             longFromEnv("PASSWORD_HASH_DEADLINE_MILLIS", DEFAULT_DEADLINE_MILLIS),
+             longFromEnv("PASSWORD_HASH_STATS_INTERVAL_MILLIS", DEFAULT_STATS_INTERVAL_MILLIS));
+    }
+
+    public PasswordHashingExecutor(int threads, int queueCapacity, long deadlineMillis) {
+        this(threads, queueCapacity, deadlineMillis, DEFAULT_STATS_INTERVAL_MILLIS);
+    }
+
+    public PasswordHashingExecutor(int threads, int queueCapacity, long deadlineMillis, long statsIntervalMillis) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity, true),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        this.statsIntervalNanos = TimeUnit.MILLISECONDS.toNanos(statsIntervalMillis);
+        logger.info("Password hashing pool: {} threads, queue {}, deadline {} ms", threads, queueCapacity, deadlineMillis);
+    }
+
+    /**
+     * Run hashing work on the pool and wait for it, failing with
+     * "Authentication service busy" if it cannot start before the deadline
+     */
+    public <T> T execute(Callable<T> work) {
+        long submittedAt = System.nanoTime();
+        long deadline = submittedAt + deadlineNanos;
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt);
+                if (startedAt - deadline > 0) {
+                    expired.incrementAndGet();
+                    throw new RejectedExecutionException(BUSY_MESSAGE);
+                }
+                try {
+                    return work.call();
+                } finally {
+                    hashTime.record(System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            logger.warn("Password hashing queue full, rejecting request");
+            throw new RuntimeException(BUSY_MESSAGE, e);
+        }
+
+        try {
+            // The task itself enforces the deadline when dequeued, so this wait is bounded
+            // by the deadline plus one hash
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(BUSY_MESSAGE, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RejectedExecutionException) {
+                throw new RuntimeException(BUSY_MESSAGE, cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            logStatsIfDue();
+        }
+    }
+
+    /**
+     * Log the pool statistics if the stats interval has passed since they
+     * were last logged. Driven by calls rather than a timer, which would not
+     * run while a Lambda container is frozen between invocations.
+     */
+    private void logStatsIfDue() {
+        long now = System.nanoTime();
+        long last = statsLoggedAt.get();
+        if (now - last >= statsIntervalNanos && statsLoggedAt.compareAndSet(last, now)) {
+            logger.info("Password hashing stats: {}", this);
+        }
+    }
+
+    public LatencyHistogram getQueueWait() { return queueWait; }
+    public LatencyHistogram getHashTime() { return hashTime; }
+    public long getRejected() { return rejected.get(); }
+    public long getExpired() { return expired.get(); }
+    public int getQueueDepth() { return executor.getQueue().size(); }
+
+    @Override
+    public String toString() {
+        return "PasswordHashingExecutor{queueDepth=" + getQueueDepth() + ", rejected=" + rejected.get() +
+                ", expired=" + expired.get() + ", queueWait=" + queueWait + ", hashTime=" + hashTime + '}';
+    }
+
+    private static int threadsFor(double coreFraction) {
+        return Math.max(1, (int) (Runtime.getRuntime().availableProcessors() * coreFraction));
+    }
+
+    private static double doubleFromEnv(String name, double defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    private static long longFromEnv(String name, long defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Long.parseLong(value.trim());
+    }
+}
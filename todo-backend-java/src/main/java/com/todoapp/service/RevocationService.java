@@ -0,0 +1,104 @@
+package com.todoapp.service;
+
+import com.todoapp.repository.RevocationRepository;
+import com.todoapp.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers "might this user be revoked?" from an in-memory Bloom filter of the
+ * revocation set, rebuilt from DynamoDB once it is older than the refresh
+ * interval. A negative answer is definitive; a positive one must be confirmed
+ * against the user record.
+ */
+public class RevocationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RevocationService.class);
+
+    private static final long DEFAULT_REFRESH_MILLIS = 60000;
+    private static final int MIN_FILTER_CAPACITY = 1000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevocationRepository revocationRepository;
+    private final long refreshNanos;
+
+    private volatile BloomFilter filter;
+    private volatile long loadedAtNanos;
+
+    public RevocationService(RevocationRepository revocationRepository) {
+        this(revocationRepository, refreshMillisFromEnv());
+    }
+
+    public RevocationService(RevocationRepository revocationRepository, long refreshMillis) {
+        this.revocationRepository = revocationRepository;
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMillis);
+    }
+
+    /**
+     * Whether the user may be in the revocation set. Also true when the set
+     * has never been loaded, so callers fall back to a full check.
+     */
+    public boolean mightBeRevoked(String userId) {
+        BloomFilter current = currentFilter();
+        return current == null || current.mightContain(userId);
+    }
+
+    /**
+     * Add a user to the revocation set and to this container's filter
+     */
+    public void revoke(String userId) {
+        revocationRepository.revoke(userId);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(userId);
+        }
+    }
+
+    private BloomFilter currentFilter() {
+        BloomFilter current = filter;
+        if (current == null || System.nanoTime() - loadedAtNanos > refreshNanos) {
+            current = refresh();
+        }
+        return current;
+    }
+
+    /**
+     * Rebuild the filter from the revocation table, keeping the previous
+     * filter if the table cannot be read
+     */
+    private synchronized BloomFilter refresh() {
+        if (filter != null && System.nanoTime() - loadedAtNanos <= refreshNanos) {
+            return filter;
+        }
+        
+        try {
+            List<String> revokedUserIds = Collections.synchronizedList(new ArrayList<>());
+            revocationRepository.forEachRevokedUserId(revokedUserIds::add);
+            
+            BloomFilter rebuilt = new BloomFilter(Math.max(MIN_FILTER_CAPACITY, revokedUserIds.size() * 2),
+                    FALSE_POSITIVE_RATE);
+            revokedUserIds.forEach(rebuilt::put);
+            
+            filter = rebuilt;
+            loadedAtNanos = System.nanoTime();
+            logger.info("Loaded revocation filter with {} revoked users", revokedUserIds.size());
+        } catch (Exception e) {
+            logger.warn("Failed to refresh revocation filter, keeping previous one: {}", e.getMessage());
+            if (filter != null) {
+                // Retry after another interval rather than on every request
+                loadedAtNanos = System.nanoTime();
+            }
+        }
+        return filter;
+    }
+
+    private static long refreshMillisFromEnv() {
+        String value = System.getenv("REVOCATION_REFRESH_MILLIS");
+        return value == null || value.trim().isEmpty() ? DEFAULT_REFRESH_MILLIS : Long.parseLong(value.trim());
+    }
+}
@@ -0,0 +1,132 @@
+package com.todoapp.service;
+
+import com.todoapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for non-critical user metadata such as the last login
+ * time. Repeated updates for a user coalesce to the latest value, and pending
+ * values are flushed as narrow UpdateItems on a background thread and when
+ * the buffer fills.
+ * <p>
+ * Lambda freezes the container between invocations, so the background
+ * thread stops with it; callers therefore run {@link #flushIfStale()} at the
+ * start of each invocation to restart the flush of values left over from the
+ * previous one.
+ * The JVM shutdown hook only runs if the runtime delivers SIGTERM, which
+ * Lambda does only for functions with a registered extension. Values still
+ * buffered when an idle container is reclaimed are lost, which is
+ * acceptable for metadata of this kind.
+ */
+public class UserMetadataBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserMetadataBuffer.class);
+
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5000;
+    private static final int DEFAULT_MAX_PENDING = 500;
+
+    private final UserRepository userRepository;
+    private final long flushIntervalNanos;
+    private final int maxPending;
+    private final Map<String, Instant> pendingLastLogins = new ConcurrentHashMap<>();
+    // When the buffer last went from empty to non-empty; 0 while empty
+    private final AtomicLong oldestPendingAt = new AtomicLong();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-metadata-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Configure from USER_METADATA_FLUSH_MILLIS and USER_METADATA_MAX_PENDING
+     */
+    public UserMetadataBuffer(UserRepository userRepository) {
+        this(userRepository, longFromEnv("USER_METADATA_FLUSH_MILLIS", DEFAULT_FLUSH_INTERVAL_MILLIS),
+             (int) longFromEnv("USER_METADATA_MAX_PENDING", DEFAULT_MAX_PENDING));
+    }
+
+    public UserMetadataBuffer(UserRepository userRepository, long flushIntervalMillis, int maxPending) {
+        this.userRepository = userRepository;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.maxPending = maxPending;
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "user-metadata-shutdown-flush"));
+    }
+
+    /**
+     * Buffer a login time; a later login for the same user replaces it
+     */
+    public void recordLogin(String userId, Instant loginAt) {
+        pendingLastLogins.merge(userId, loginAt, (previous, next) -> next.isAfter(previous) ? next : previous);
+        oldestPendingAt.compareAndSet(0, System.nanoTime());
+        if (pendingLastLogins.size() >= maxPending) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    /**
+     * Start a flush on the background thread if values have been pending for
+     * longer than the flush interval, i.e. the scheduled flush did not get to
+     * run because the container was frozen. The flush overlaps with the
+     * caller's own work instead of delaying it; if the invocation ends first,
+     * it finishes when the container next thaws.
+     */
+    public void flushIfStale() {
+        long pendingSince = oldestPendingAt.get();
+        if (pendingSince != 0 && System.nanoTime() - pendingSince >= flushIntervalNanos) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    /**
+     * Write every pending value. Failed writes are put back for the next
+     * flush unless a newer value arrived meanwhile.
+     */
+    public synchronized void flush() {
+        oldestPendingAt.set(0);
+        if (pendingLastLogins.isEmpty()) {
+            return;
+        }
+
+        List<String> userIds = new ArrayList<>(pendingLastLogins.keySet());
+        int written = 0;
+        for (String userId : userIds) {
+            Instant loginAt = pendingLastLogins.remove(userId);
+            if (loginAt == null) {
+                continue;
+            }
+            try {
+                if (userRepository.updateLastLogin(userId, loginAt)) {
+                    written++;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to flush last login for user {}, will retry: {}", userId, e.getMessage());
+                pendingLastLogins.merge(userId, loginAt, (newer, failed) -> newer);
+            }
+        }
+        if (!pendingLastLogins.isEmpty()) {
+            oldestPendingAt.compareAndSet(0, System.nanoTime());
+        }
+        logger.info("Flushed last login for {} of {} users", written, userIds.size());
+    }
+
+    public int getPendingCount() {
+        return pendingLastLogins.size();
+    }
+
+    private static long longFromEnv(String name, long defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Long.parseLong(value.trim());
+    }
+}
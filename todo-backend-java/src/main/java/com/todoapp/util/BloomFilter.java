@@ -0,0 +1,73 @@
+package com.todoapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+/**
+ * Compact probabilistic set of strings. mightContain never returns false for
+ * an added value, and returns true for other values at roughly the
+ * false-positive rate the filter was sized for.
+ */
+public class BloomFilter {
+    
+    private final BitSet bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    /**
+     * Size a filter for the expected number of values and false-positive rate
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        this.bitCount = (int) Math.max(64, Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * ln2));
+        this.bits = new BitSet(bitCount);
+    }
+
+    public synchronized void put(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            bits.set(index(h1, h2, i));
+        }
+    }
+
+    public synchronized boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            if (!bits.get(index(h1, h2, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * i-th probe position by double hashing
+     */
+    private int index(int h1, int h2, int i) {
+        int combined = h1 + i * h2;
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes followed by a 64-bit avalanche mix
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -1,6 +1,7 @@
 package com.todoapp.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
@@ -13,6 +14,7 @@ import javax.validation.Validation;
 import javax.validation.Validator;
 import javax.validation.ValidatorFactory;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -29,7 +31,8 @@ public class LambdaUtils {
     // CORS headers
     private static final Map<String, String> CORS_HEADERS = Map.of(
             "Access-Control-Allow-Origin", "*",
-            "Access-Control-Allow-Headers", "Content-Type,X-Amz-Date,Authorization,X-Api-Key,X-Amz-Security-Token",
+            "Access-Control-Allow-Headers", "Content-Type,X-Amz-Date,Authorization,X-Api-Key,X-Amz-Security-Token,If-Match",
+            "Access-Control-Expose-Headers", "ETag",
             "Access-Control-Allow-Methods", "GET,POST,PUT,DELETE,OPTIONS",
             "Content-Type", "application/json"
     );
@@ -59,11 +62,8 @@ public class LambdaUtils {
             T parsedObject = objectMapper.readValue(body, clazz);
             
             // Validate the parsed object
-            Set<ConstraintViolation<T>> violations = validator.validate(parsedObject);
-            if (!violations.isEmpty()) {
-                String errorMessage = violations.stream()
-                        .map(ConstraintViolation::getMessage)
-                        .collect(Collectors.joining(", "));
+            String errorMessage = getValidationErrors(parsedObject);
+            if (errorMessage != null) {
                 throw new IllegalArgumentException("Validation failed: " + errorMessage);
             }
             
@@ -74,6 +74,19 @@ public class LambdaUtils {
         }
     }
 
+    /**
+     * Validate an object, returning the joined violation messages or null if valid
+     */
+    public static <T> String getValidationErrors(T object) {
+        Set<ConstraintViolation<T>> violations = validator.validate(object);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(", "));
+    }
+
     /**
      * Create success response
      */
@@ -85,13 +98,26 @@ public class LambdaUtils {
      * Create success response with message
      */
     public static <T> APIGatewayProxyResponseEvent createSuccessResponse(T data, String message) {
+        return createSuccessResponse(data, message, null);
+    }
+
+    /**
+     * Create success response with message and extra headers (e.g. ETag)
+     */
+    public static <T> APIGatewayProxyResponseEvent createSuccessResponse(T data, String message, Map<String, String> headers) {
         try {
             ApiResponse<T> response = ApiResponse.success(data, message);
             String responseBody = objectMapper.writeValueAsString(response);
             
+            Map<String, String> responseHeaders = CORS_HEADERS;
+            if (headers != null && !headers.isEmpty()) {
+                responseHeaders = new HashMap<>(CORS_HEADERS);
+                responseHeaders.putAll(headers);
+            }
+            
             return new APIGatewayProxyResponseEvent()
                     .withStatusCode(200)
-                    .withHeaders(CORS_HEADERS)
+                    .withHeaders(responseHeaders)
                     .withBody(responseBody);
         } catch (Exception e) {
             logger.error("Error creating success response: {}", e.getMessage(), e);
@@ -167,6 +193,19 @@ public class LambdaUtils {
         return value != null ? value : defaultValue;
     }
 
+    /**
+     * Reduce each item to the selected JSON fields for a sparse response.
+     * Items are returned unchanged when no fields were selected.
+     */
+    public static List<?> selectFields(List<?> items, Set<String> fields) {
+        if (fields == null) {
+            return items;
+        }
+        return items.stream()
+                .map(item -> objectMapper.<ObjectNode>valueToTree(item).retain(fields))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Extract authorization header (JWT token)
      */
@@ -185,6 +224,47 @@ public class LambdaUtils {
         return auth;
     }
 
+    /**
+     * Extract the expected entity version from the If-Match header, if any.
+     * Accepts 3, "3" and W/"3".
+     */
+    public static Long getIfMatchVersion(APIGatewayProxyRequestEvent request) {
+        Map<String, String> headers = request.getHeaders();
+        if (headers == null) {
+            return null;
+        }
+        
+        String ifMatch = headers.get("If-Match");
+        if (ifMatch == null) {
+            ifMatch = headers.get("if-match");
+        }
+        if (ifMatch == null || ifMatch.trim().isEmpty() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    /**
+     * Build the ETag header for an entity version
+     */
+    public static Map<String, String> versionHeaders(Long version) {
+        if (version == null) {
+            return Map.of();
+        }
+        return Map.of("ETag", "\"" + version + "\"");
+    }
+
     /**
      * Extract JWT token from authorization header
      */
@@ -0,0 +1,60 @@
+package com.todoapp.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with power-of-two millisecond buckets
+ * (&lt;1, &lt;2, &lt;4, ... ms; the last bucket is unbounded). Percentiles are
+ * reported as the upper bound of the bucket they fall in.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKET_COUNT = 16;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, nanos));
+        int bucket = Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(millis));
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+    }
+
+    public long getCount() { return count.get(); }
+
+    public long getMeanMillis() {
+        long n = count.get();
+        return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.get() / n);
+    }
+
+    /**
+     * Upper bound in milliseconds of the bucket holding the given percentile
+     * (0-100), or -1 when it falls in the unbounded bucket
+     */
+    public long getPercentileMillis(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(n * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "{count=" + getCount() + ", meanMs=" + getMeanMillis() + ", p50Ms=" + getPercentileMillis(50) +
+                ", p99Ms=" + getPercentileMillis(99) + '}';
+    }
+}
@@ -1,54 +1,136 @@
 package com.todoapp.util;
 
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import com.todoapp.repository.AsyncTaskRepository;
+import com.todoapp.repository.LoginAttemptRepository;
+import com.todoapp.repository.ParallelScanner;
+import com.todoapp.repository.RevocationRepository;
+import com.todoapp.repository.TaskCache;
 import com.todoapp.repository.UserRepository;
 import com.todoapp.repository.TaskRepository;
 import com.todoapp.service.AuthService;
 import com.todoapp.service.JwtService;
+import com.todoapp.service.LoginThrottle;
+import com.todoapp.service.PasswordHasher;
+import com.todoapp.service.PasswordHashingExecutor;
+import com.todoapp.service.RevocationService;
+import com.todoapp.service.UserMetadataBuffer;
 
 /**
  * Factory for creating service instances
  */
 public class ServiceFactory {
     
+    private static DynamoDbClient dynamoDbLowLevelClient;
     private static DynamoDbEnhancedClient dynamoDbClient;
+    private static DynamoDbAsyncClient dynamoDbAsyncLowLevelClient;
+    private static DynamoDbEnhancedAsyncClient dynamoDbAsyncClient;
     private static UserRepository userRepository;
     private static TaskRepository taskRepository;
+    private static AsyncTaskRepository asyncTaskRepository;
+    private static ParallelScanner parallelScanner;
+    private static TaskCache taskCache;
+    private static RevocationRepository revocationRepository;
+    private static RevocationService revocationService;
+    private static LoginAttemptRepository loginAttemptRepository;
+    private static LoginThrottle loginThrottle;
+    private static PasswordHasher passwordHasher;
+    private static PasswordHashingExecutor passwordHashingExecutor;
+    private static UserMetadataBuffer userMetadataBuffer;
     private static JwtService jwtService;
     private static AuthService authService;
 
+    /**
+     * Get low-level DynamoDB Client (for expression-based writes)
+     */
+    public static synchronized DynamoDbClient getDynamoDbLowLevelClient() {
+        if (dynamoDbLowLevelClient == null) {
+            dynamoDbLowLevelClient = DynamoDbClient.builder()
+                    .region(getRegion())
+                    .build();
+        }
+        return dynamoDbLowLevelClient;
+    }
+
     /**
      * Get DynamoDB Enhanced Client
      */
     public static synchronized DynamoDbEnhancedClient getDynamoDbClient() {
         if (dynamoDbClient == null) {
-            // Get region from environment variable or use default
-            String regionName = System.getenv("AWS_REGION");
-            if (regionName == null || regionName.trim().isEmpty()) {
-                regionName = "us-east-1"; // Default region
-            }
-            
-            Region region = Region.of(regionName);
-            
-            DynamoDbClient client = DynamoDbClient.builder()
-                    .region(region)
-                    .build();
-            
             dynamoDbClient = DynamoDbEnhancedClient.builder()
-                    .dynamoDbClient(client)
+                    .dynamoDbClient(getDynamoDbLowLevelClient())
                     .build();
         }
         return dynamoDbClient;
     }
 
+    /**
+     * Get low-level async DynamoDB Client on the non-blocking Netty transport
+     */
+    public static synchronized DynamoDbAsyncClient getDynamoDbAsyncLowLevelClient() {
+        if (dynamoDbAsyncLowLevelClient == null) {
+            dynamoDbAsyncLowLevelClient = DynamoDbAsyncClient.builder()
+                    .region(getRegion())
+                    .httpClientBuilder(NettyNioAsyncHttpClient.builder())
+                    .build();
+        }
+        return dynamoDbAsyncLowLevelClient;
+    }
+
+    /**
+     * Get DynamoDB Enhanced Async Client
+     */
+    public static synchronized DynamoDbEnhancedAsyncClient getDynamoDbAsyncClient() {
+        if (dynamoDbAsyncClient == null) {
+            dynamoDbAsyncClient = DynamoDbEnhancedAsyncClient.builder()
+                    .dynamoDbClient(getDynamoDbAsyncLowLevelClient())
+                    .build();
+        }
+        return dynamoDbAsyncClient;
+    }
+
+    /**
+     * Get region from environment variable or use default
+     */
+    private static Region getRegion() {
+        String regionName = System.getenv("AWS_REGION");
+        if (regionName == null || regionName.trim().isEmpty()) {
+            regionName = "us-east-1"; // Default region
+        }
+        return Region.of(regionName);
+    }
+
+    /**
+     * Get Parallel Scanner shared by repositories for full-table scans
+     */
+    public static synchronized ParallelScanner getParallelScanner() {
+        if (parallelScanner == null) {
+            parallelScanner = new ParallelScanner();
+        }
+        return parallelScanner;
+    }
+
+    /**
+     * Get Task Cache shared by the sync and async task repositories (exposes hit/miss counters)
+     */
+    public static synchronized TaskCache getTaskCache() {
+        if (taskCache == null) {
+            taskCache = new TaskCache();
+        }
+        return taskCache;
+    }
+
     /**
      * Get User Repository
      */
     public static synchronized UserRepository getUserRepository() {
         if (userRepository == null) {
-            userRepository = new UserRepository(getDynamoDbClient());
+            userRepository = new UserRepository(getDynamoDbClient(), getDynamoDbLowLevelClient(), getParallelScanner());
         }
         return userRepository;
     }
@@ -58,11 +140,93 @@ public class ServiceFactory {
      */
     public static synchronized TaskRepository getTaskRepository() {
         if (taskRepository == null) {
-            taskRepository = new TaskRepository(getDynamoDbClient());
+            taskRepository = new TaskRepository(getDynamoDbClient(), getDynamoDbLowLevelClient(), getTaskCache());
         }
         return taskRepository;
     }
 
+    /**
+     * Get async Task Repository
+     */
+    public static synchronized AsyncTaskRepository getAsyncTaskRepository() {
+        if (asyncTaskRepository == null) {
+            asyncTaskRepository = new AsyncTaskRepository(getDynamoDbAsyncClient(), getDynamoDbAsyncLowLevelClient(),
+                                                          getTaskCache());
+        }
+        return asyncTaskRepository;
+    }
+
+    /**
+     * Get Revocation Repository
+     */
+    public static synchronized RevocationRepository getRevocationRepository() {
+        if (revocationRepository == null) {
+            revocationRepository = new RevocationRepository(getDynamoDbClient(), getParallelScanner());
+        }
+        return revocationRepository;
+    }
+
+    /**
+     * Get Revocation Service
+     */
+    public static synchronized RevocationService getRevocationService() {
+        if (revocationService == null) {
+            revocationService = new RevocationService(getRevocationRepository());
+        }
+        return revocationService;
+    }
+
+    /**
+     * Get Login Attempt Repository (shared failed-login counters)
+     */
+    public static synchronized LoginAttemptRepository getLoginAttemptRepository() {
+        if (loginAttemptRepository == null) {
+            loginAttemptRepository = new LoginAttemptRepository(getDynamoDbLowLevelClient());
+        }
+        return loginAttemptRepository;
+    }
+
+    /**
+     * Get Login Throttle; counters are shared across containers when LOGIN_THROTTLE_SHARED=true
+     */
+    public static synchronized LoginThrottle getLoginThrottle() {
+        if (loginThrottle == null) {
+            boolean shared = Boolean.parseBoolean(System.getenv("LOGIN_THROTTLE_SHARED"));
+            loginThrottle = new LoginThrottle(shared ? getLoginAttemptRepository() : null);
+        }
+        return loginThrottle;
+    }
+
+    /**
+     * Get Password Hasher; the BCrypt cost is configured or calibrated once per container
+     */
+    public static synchronized PasswordHasher getPasswordHasher() {
+        if (passwordHasher == null) {
+            passwordHasher = new PasswordHasher();
+        }
+        return passwordHasher;
+    }
+
+    /**
+     * Get Password Hashing Executor (exposes queue-wait and hash-time histograms)
+     */
+    public static synchronized PasswordHashingExecutor getPasswordHashingExecutor() {
+        if (passwordHashingExecutor == null) {
+            passwordHashingExecutor = new PasswordHashingExecutor();
+        }
+        return passwordHashingExecutor;
+    }
+
+    /**
+     * Get User Metadata Buffer (write-behind for last login times)
+     */
+    public static synchronized UserMetadataBuffer getUserMetadataBuffer() {
+        if (userMetadataBuffer == null) {
+            userMetadataBuffer = new UserMetadataBuffer(getUserRepository());
+        }
+        return userMetadataBuffer;
+    }
+
     /**
      * Get JWT Service
      */
@@ -78,7 +242,9 @@ public class ServiceFactory {
      */
     public static synchronized AuthService getAuthService() {
         if (authService == null) {
-            authService = new AuthService(getUserRepository(), getJwtService());
+            authService = new AuthService(getUserRepository(), getJwtService(), getRevocationService(), getLoginThrottle(),
+                                          getPasswordHasher(), getPasswordHashingExecutor(),
+                                          getUserMetadataBuffer());
         }
         return authService;
     }
@@ -87,9 +253,22 @@ public class ServiceFactory {
      * Reset all instances (for testing)
      */
     public static synchronized void reset() {
+        dynamoDbLowLevelClient = null;
         dynamoDbClient = null;
+        dynamoDbAsyncLowLevelClient = null;
+        dynamoDbAsyncClient = null;
         userRepository = null;
         taskRepository = null;
+        asyncTaskRepository = null;
+        parallelScanner = null;
+        taskCache = null;
+        revocationRepository = null;
+        revocationService = null;
+        loginAttemptRepository = null;
+        loginThrottle = null;
+        passwordHasher = null;
+        passwordHashingExecutor = null;
+        userMetadataBuffer = null;
         jwtService = null;
         authService = null;
     }
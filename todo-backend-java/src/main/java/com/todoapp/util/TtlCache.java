@@ -0,0 +1,111 @@
+package com.todoapp.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Small thread-safe in-process cache with a per-entry time to live and
+ * least-recently-used eviction once it holds more than maxEntries.
+ * A cache built with a non-positive TTL or size never stores anything.
+ */
+public class TtlCache<K, V> {
+    
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TtlCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > TtlCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a live entry, or null on a miss
+     */
+    public synchronized V get(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAtNanos - System.nanoTime() > 0) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+        if (entry != null) {
+            entries.remove(key);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Store a value for the cache's TTL
+     */
+    public void put(K key, V value) {
+        store(key, value, ttlNanos);
+    }
+
+    /**
+     * Store a value until the given TTL or the cache's TTL, whichever is shorter
+     */
+    public void put(K key, V value, long ttlMillis) {
+        store(key, value, Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(ttlMillis)));
+    }
+
+    private synchronized void store(K key, V value, long entryTtlNanos) {
+        if (maxEntries <= 0 || entryTtlNanos <= 0 || value == null) {
+            return;
+        }
+        entries.put(key, new CacheEntry<>(value, System.nanoTime() + entryTtlNanos));
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<? super K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    @Override
+    public String toString() {
+        return "TtlCache{size=" + size() + ", hits=" + hits.get() + ", misses=" + misses.get() +
+                ", evictions=" + evictions.get() + '}';
+    }
+
+    private static final class CacheEntry<V> {
+        private final V value;
+        private final long expiresAtNanos;
+        
+        private CacheEntry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.Task.TaskStatus;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskQueriesTest {
+
+    private static final String USER_ID = "user-1";
+
+    @Test
+    void cursorRoundTripsTheLastEvaluatedKey() {
+        Map<String, AttributeValue> lastKey = key("userId", USER_ID, "taskId", "task-9");
+
+        String cursor = TaskQueries.encodeCursor(lastKey);
+
+        assertEquals(lastKey, TaskQueries.decodeCursor(USER_ID, cursor));
+    }
+
+    @Test
+    void noLastEvaluatedKeyMeansNoCursor() {
+        assertNull(TaskQueries.encodeCursor(null));
+        assertNull(TaskQueries.encodeCursor(Map.of()));
+        assertNull(TaskQueries.decodeCursor(USER_ID, null));
+        assertNull(TaskQueries.decodeCursor(USER_ID, " "));
+    }
+
+    @Test
+    void rejectsCursorIssuedForAnotherUser() {
+        String cursor = TaskQueries.encodeCursor(key("userId", "user-2", "taskId", "task-9"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> TaskQueries.decodeCursor(USER_ID, cursor));
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        String notJson = Base64.getUrlEncoder().encodeToString("not json".getBytes(StandardCharsets.UTF_8));
+        String nullValue = Base64.getUrlEncoder()
+                .encodeToString("{\"userId\":\"user-1\",\"taskId\":null}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> TaskQueries.decodeCursor(USER_ID, "%%%"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQueries.decodeCursor(USER_ID, notJson));
+        assertThrows(IllegalArgumentException.class, () -> TaskQueries.decodeCursor(USER_ID, nullValue));
+    }
+
+    @Test
+    void acceptsIndexCursorOnlyForThePlanThatIssuedIt() {
+        TaskQueryPlan pending = TaskQueryPlan.of(USER_ID, statusFilter(TaskStatus.PENDING));
+        TaskQueryPlan completed = TaskQueryPlan.of(USER_ID, statusFilter(TaskStatus.COMPLETED));
+        TaskQueryPlan unfiltered = TaskQueryPlan.of(USER_ID, new TaskFilter());
+        String cursor = TaskQueries.encodeCursor(key("userId", USER_ID, "taskId", "task-9",
+                "statusIndex", Task.statusIndexKey(USER_ID, TaskStatus.PENDING)));
+
+        assertEquals(3, TaskQueries.decodeCursor(USER_ID, cursor, pending).size());
+        assertThrows(IllegalArgumentException.class, () -> TaskQueries.decodeCursor(USER_ID, cursor, completed));
+        assertThrows(IllegalArgumentException.class, () -> TaskQueries.decodeCursor(USER_ID, cursor, unfiltered));
+    }
+
+    @Test
+    void rejectsDueDateCursorOutsideThePlannedRange() {
+        TaskFilter filter = new TaskFilter();
+        filter.setDueFrom(LocalDate.of(2024, 3, 1));
+        filter.setDueTo(LocalDate.of(2024, 3, 31));
+        TaskQueryPlan plan = TaskQueryPlan.of(USER_ID, filter);
+        String inRange = TaskQueries.encodeCursor(key("userId", USER_ID, "taskId", "task-9",
+                "openDueDate", "2024-03-15"));
+        String outOfRange = TaskQueries.encodeCursor(key("userId", USER_ID, "taskId", "task-9",
+                "openDueDate", "2024-04-02"));
+
+        assertEquals(3, TaskQueries.decodeCursor(USER_ID, inRange, plan).size());
+        assertThrows(IllegalArgumentException.class, () -> TaskQueries.decodeCursor(USER_ID, outOfRange, plan));
+    }
+
+    @Test
+    void acceptsBaseTableCursorForEveryPlan() {
+        String cursor = TaskQueries.encodeCursor(key("userId", USER_ID, "taskId", "task-9"));
+
+        assertEquals(2, TaskQueries.decodeCursor(USER_ID, cursor,
+                TaskQueryPlan.of(USER_ID, statusFilter(TaskStatus.PENDING))).size());
+        assertEquals(2, TaskQueries.decodeCursor(USER_ID, cursor,
+                TaskQueryPlan.of(USER_ID, new TaskFilter())).size());
+    }
+
+    @Test
+    void baseTableKeyKeepsOnlyThePrimaryKey() {
+        Map<String, AttributeValue> indexKey = key("userId", USER_ID, "taskId", "task-9",
+                "openDueDate", "2024-03-15");
+
+        assertEquals(key("userId", USER_ID, "taskId", "task-9"), TaskQueries.baseTableKey(indexKey));
+        assertNull(TaskQueries.baseTableKey(key("userId", USER_ID)));
+    }
+
+    @Test
+    void projectionAlwaysKeepsKeyAndDeletedFlag() {
+        assertNull(TaskQueries.projection(null));
+        assertEquals(List.of("userId", "taskId", "isDeleted", "title", "isReminderSent"),
+                TaskQueries.projection(new LinkedHashSet<>(List.of("title", "reminderSent"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> TaskQueries.projection(Set.of("passwordHash")));
+    }
+
+    private static TaskFilter statusFilter(TaskStatus status) {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(status));
+        return filter;
+    }
+
+    private static Map<String, AttributeValue> key(String... namesAndValues) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            key.put(namesAndValues[i], AttributeValue.builder().s(namesAndValues[i + 1]).build());
+        }
+        return key;
+    }
+}
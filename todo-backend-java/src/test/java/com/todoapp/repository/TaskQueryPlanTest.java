@@ -0,0 +1,85 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task.TaskPriority;
+import com.todoapp.model.Task.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TaskQueryPlanTest {
+
+    private static final String USER_ID = "user-1";
+    private static final LocalDate MARCH_1 = LocalDate.of(2024, 3, 1);
+    private static final LocalDate MARCH_31 = LocalDate.of(2024, 3, 31);
+
+    @Test
+    void dueRangeWithUpperBoundUsesTheDueDateIndex() {
+        TaskFilter filter = filter(List.of(TaskStatus.PENDING), null, MARCH_31);
+
+        TaskQueryPlan plan = TaskQueryPlan.of(USER_ID, filter);
+
+        assertEquals(TaskQueries.DUE_DATE_INDEX, plan.getIndexName());
+        assertEquals("DueDateIndex key[openDueDate <= 2024-03-31] filter[#status = :status0]",
+                plan.describeIndexQuery());
+    }
+
+    @Test
+    void singleStatusWithDueFromUsesTheStatusIndex() {
+        TaskFilter filter = filter(List.of(TaskStatus.IN_PROGRESS), MARCH_1, null);
+
+        TaskQueryPlan plan = TaskQueryPlan.of(USER_ID, filter);
+
+        assertEquals(TaskQueries.STATUS_INDEX, plan.getIndexName());
+        assertEquals("StatusIndex key[statusIndex = IN_PROGRESS] filter[isDeleted = :deleted"
+                + " AND #status <> :completed AND dueDate >= :dueFrom]", plan.describeIndexQuery());
+    }
+
+    @Test
+    void dueFromWithoutSingleStatusUsesTheDueDateIndex() {
+        assertEquals(TaskQueries.DUE_DATE_INDEX,
+                TaskQueryPlan.of(USER_ID, filter(List.of(), MARCH_1, null)).getIndexName());
+        assertEquals(TaskQueries.DUE_DATE_INDEX, TaskQueryPlan.of(USER_ID,
+                filter(List.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS), MARCH_1, null)).getIndexName());
+    }
+
+    @Test
+    void singleStatusUsesTheStatusIndex() {
+        TaskQueryPlan plan = TaskQueryPlan.of(USER_ID, filter(List.of(TaskStatus.COMPLETED), null, null));
+
+        assertEquals(TaskQueries.STATUS_INDEX, plan.getIndexName());
+        assertEquals("StatusIndex key[statusIndex = COMPLETED] filter[isDeleted = :deleted]",
+                plan.describeIndexQuery());
+    }
+
+    @Test
+    void otherFiltersReadTheBaseTable() {
+        TaskFilter priorityOnly = new TaskFilter();
+        priorityOnly.setPriorities(List.of(TaskPriority.HIGH));
+
+        assertNull(TaskQueryPlan.of(USER_ID, new TaskFilter()).getIndexName());
+        assertNull(TaskQueryPlan.of(USER_ID, priorityOnly).getIndexName());
+        assertNull(TaskQueryPlan.of(USER_ID,
+                filter(List.of(TaskStatus.PENDING, TaskStatus.COMPLETED), null, null)).getIndexName());
+    }
+
+    @Test
+    void tableQueryFiltersEveryCriterion() {
+        TaskFilter filter = filter(List.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS), MARCH_1, MARCH_31);
+
+        assertEquals("Tasks key[userId] filter[isDeleted = :deleted AND #status IN (:status0, :status1)"
+                        + " AND #status <> :completed AND dueDate >= :dueFrom AND dueDate <= :dueTo]",
+                TaskQueryPlan.of(USER_ID, filter).describeTableQuery());
+    }
+
+    private static TaskFilter filter(List<TaskStatus> statuses, LocalDate dueFrom, LocalDate dueTo) {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(statuses);
+        filter.setDueFrom(dueFrom);
+        filter.setDueTo(dueTo);
+        return filter;
+    }
+}
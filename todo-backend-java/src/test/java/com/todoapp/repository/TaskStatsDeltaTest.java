@@ -0,0 +1,91 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task.TaskStatus;
+import com.todoapp.model.UserTaskStats;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskStatsDeltaTest {
+
+    @Test
+    void newTaskCountsTowardsTotalAndStatus() {
+        UpdateItemRequest request = new TaskStatsDelta().add(TaskStatus.PENDING, false).toUpdateItemRequest("user-1");
+
+        assertEquals(TaskStatsDelta.TABLE_NAME, request.tableName());
+        assertEquals(TaskStatsDelta.key("user-1"), request.key());
+        assertEquals("ADD #c0 :d0, #c1 :d1", request.updateExpression());
+        assertEquals(Map.of("#c0", "totalTasks", "#c1", "pendingTasks"), request.expressionAttributeNames());
+        assertEquals(Map.of(":d0", number(1), ":d1", number(1)), request.expressionAttributeValues());
+        assertEquals("attribute_exists(userId)", request.conditionExpression());
+    }
+
+    @Test
+    void statusChangeMovesOneCounterToAnotherAndSkipsTheTotal() {
+        UpdateItemRequest request = new TaskStatsDelta()
+                .remove(TaskStatus.PENDING, false)
+                .add(TaskStatus.COMPLETED, false)
+                .toUpdateItemRequest("user-1");
+
+        assertEquals("ADD #c0 :d0, #c1 :d1", request.updateExpression());
+        assertEquals(Map.of("#c0", "pendingTasks", "#c1", "completedTasks"), request.expressionAttributeNames());
+        assertEquals(Map.of(":d0", number(-1), ":d1", number(1)), request.expressionAttributeValues());
+    }
+
+    @Test
+    void unchangedStatusIsEmpty() {
+        TaskStatsDelta delta = new TaskStatsDelta()
+                .remove(TaskStatus.IN_PROGRESS, false)
+                .add(TaskStatus.IN_PROGRESS, false);
+
+        assertTrue(delta.isEmpty());
+        assertTrue(new TaskStatsDelta().isEmpty());
+    }
+
+    @Test
+    void deletedAndStatuslessTasksCountTowardsNothing() {
+        TaskStatsDelta delta = new TaskStatsDelta()
+                .add(TaskStatus.PENDING, true)
+                .remove(TaskStatus.COMPLETED, true)
+                .add(null, false);
+
+        assertTrue(delta.isEmpty());
+    }
+
+    @Test
+    void deletingATaskRemovesItFromTotalAndStatus() {
+        TaskStatsDelta delta = new TaskStatsDelta().remove(TaskStatus.COMPLETED, false);
+
+        assertFalse(delta.isEmpty());
+        Update update = delta.toTransactItem("user-1").update();
+        assertEquals("ADD #c0 :d0, #c1 :d1", update.updateExpression());
+        assertEquals(Map.of("#c0", "totalTasks", "#c1", "completedTasks"), update.expressionAttributeNames());
+        assertEquals(Map.of(":d0", number(-1), ":d1", number(-1)), update.expressionAttributeValues());
+        assertEquals("attribute_exists(userId)", update.conditionExpression());
+    }
+
+    @Test
+    void seedOnlyCreatesAMissingItemUnlessOverwriting() {
+        UserTaskStats counters = new UserTaskStats("user-1", 3, 1, 1, 1);
+
+        PutItemEnhancedRequest<UserTaskStats> create = TaskStatsDelta.seedRequest(counters, false);
+        PutItemEnhancedRequest<UserTaskStats> overwrite = TaskStatsDelta.seedRequest(counters, true);
+
+        assertEquals(counters, create.item());
+        assertEquals("attribute_not_exists(userId)", create.conditionExpression().expression());
+        assertNull(overwrite.conditionExpression());
+    }
+
+    private static AttributeValue number(long value) {
+        return AttributeValue.builder().n(Long.toString(value)).build();
+    }
+}
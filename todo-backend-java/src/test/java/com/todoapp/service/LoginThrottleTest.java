@@ -0,0 +1,132 @@
+package com.todoapp.service;
+
+import com.todoapp.repository.LoginAttemptRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoginThrottleTest {
+
+    private static final long WINDOW_MILLIS = 1000;
+    private static final int MAX_PER_EMAIL = 3;
+    private static final int MAX_PER_IP = 5;
+
+    private final AtomicLong now = new AtomicLong(10_000);
+
+    @Test
+    void throttlesEmailOnceItReachesTheLimit() {
+        LoginThrottle throttle = throttle(null);
+
+        recordFailures(throttle, "alice@example.com", "10.0.0.1", 2);
+        assertFalse(throttle.isThrottled("alice@example.com", "10.0.0.1"));
+
+        throttle.recordFailure("alice@example.com", "10.0.0.1");
+        assertTrue(throttle.isThrottled("alice@example.com", "10.0.0.2"));
+        assertFalse(throttle.isThrottled("bob@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void emailsShareAKeyRegardlessOfCaseAndWhitespace() {
+        LoginThrottle throttle = throttle(null);
+
+        recordFailures(throttle, " Alice@Example.COM", null, MAX_PER_EMAIL);
+
+        assertTrue(throttle.isThrottled("alice@example.com", null));
+    }
+
+    @Test
+    void throttlesSourceIpAcrossEmails() {
+        LoginThrottle throttle = throttle(null);
+
+        for (int i = 0; i < MAX_PER_IP; i++) {
+            throttle.recordFailure("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        assertTrue(throttle.isThrottled("someone@example.com", "10.0.0.1"));
+        assertFalse(throttle.isThrottled("someone@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    void successClearsTheEmailButNotTheIp() {
+        LoginThrottle throttle = throttle(null);
+        recordFailures(throttle, "alice@example.com", "10.0.0.1", MAX_PER_EMAIL);
+        recordFailures(throttle, "bob@example.com", "10.0.0.1", MAX_PER_IP - MAX_PER_EMAIL);
+
+        throttle.recordSuccess("alice@example.com");
+
+        assertFalse(throttle.isThrottled("alice@example.com", null));
+        assertTrue(throttle.isThrottled("alice@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void previousWindowCountsByItsRemainingOverlap() {
+        LoginThrottle throttle = throttle(null);
+        recordFailures(throttle, "alice@example.com", null, MAX_PER_EMAIL);
+
+        // Half of the previous window still overlaps: 3 * 0.5 = 1.5
+        now.set(11_500);
+        assertFalse(throttle.isThrottled("alice@example.com", null));
+
+        throttle.recordFailure("alice@example.com", null);
+        assertFalse(throttle.isThrottled("alice@example.com", null));
+        throttle.recordFailure("alice@example.com", null);
+        assertTrue(throttle.isThrottled("alice@example.com", null));
+    }
+
+    @Test
+    void failuresExpireAfterTwoWindows() {
+        LoginThrottle throttle = throttle(null);
+        recordFailures(throttle, "alice@example.com", "10.0.0.1", MAX_PER_EMAIL);
+
+        now.set(12_000);
+
+        assertFalse(throttle.isThrottled("alice@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void sharedLimitBlocksUntilTheEndOfTheWindow() {
+        LoginAttemptRepository sharedCounters = mock(LoginAttemptRepository.class);
+        when(sharedCounters.incrementIfBelow(anyString(), anyLong(), anyInt(), anyLong())).thenReturn(false);
+        LoginThrottle throttle = throttle(sharedCounters);
+
+        now.set(10_200);
+        throttle.recordFailure("alice@example.com", null);
+
+        verify(sharedCounters).incrementIfBelow("email:alice@example.com", 10_000, MAX_PER_EMAIL, 12);
+        now.set(10_999);
+        assertTrue(throttle.isThrottled("alice@example.com", null));
+        now.set(11_000);
+        assertFalse(throttle.isThrottled("alice@example.com", null));
+    }
+
+    @Test
+    void sharedCounterFailuresFallBackToMemory() {
+        LoginAttemptRepository sharedCounters = mock(LoginAttemptRepository.class);
+        when(sharedCounters.incrementIfBelow(anyString(), anyLong(), anyInt(), anyLong()))
+                .thenThrow(new RuntimeException("table unavailable"));
+        LoginThrottle throttle = throttle(sharedCounters);
+
+        recordFailures(throttle, "alice@example.com", null, MAX_PER_EMAIL);
+
+        assertTrue(throttle.isThrottled("alice@example.com", null));
+    }
+
+    private LoginThrottle throttle(LoginAttemptRepository sharedCounters) {
+        return new LoginThrottle(WINDOW_MILLIS, MAX_PER_EMAIL, MAX_PER_IP, sharedCounters, now::get);
+    }
+
+    private static void recordFailures(LoginThrottle throttle, String email, String sourceIp, int count) {
+        for (int i = 0; i < count; i++) {
+            throttle.recordFailure(email, sourceIp);
+        }
+    }
+}
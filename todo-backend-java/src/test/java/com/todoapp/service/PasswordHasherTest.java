@@ -0,0 +1,48 @@
+package com.todoapp.service;
+
+import com.todoapp.service.PasswordHasher.Verification;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordHasherTest {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private static final String COST_10_HASH = new PasswordHasher(10).hash(PASSWORD);
+    private static final String COST_11_HASH = new PasswordHasher(11).hash(PASSWORD);
+    private static final String COST_12_HASH = new PasswordHasher(12).hash(PASSWORD);
+
+    @Test
+    void exactCostRehashesAnyOtherCost() {
+        PasswordHasher hasher = new PasswordHasher(11);
+
+        assertEquals(Verification.VERIFIED, hasher.verify(PASSWORD, COST_11_HASH));
+        assertEquals(Verification.VERIFIED_NEEDS_REHASH, hasher.verify(PASSWORD, COST_10_HASH));
+        assertEquals(Verification.VERIFIED_NEEDS_REHASH, hasher.verify(PASSWORD, COST_12_HASH));
+    }
+
+    @Test
+    void minimumCostRehashesOnlyLowerCosts() {
+        PasswordHasher hasher = new PasswordHasher(11, false);
+
+        assertEquals(Verification.VERIFIED, hasher.verify(PASSWORD, COST_11_HASH));
+        assertEquals(Verification.VERIFIED, hasher.verify(PASSWORD, COST_12_HASH));
+        assertEquals(Verification.VERIFIED_NEEDS_REHASH, hasher.verify(PASSWORD, COST_10_HASH));
+    }
+
+    @Test
+    void wrongPasswordOrMalformedHashFails() {
+        PasswordHasher hasher = new PasswordHasher(11);
+
+        assertEquals(Verification.FAILED, hasher.verify("wrong password", COST_11_HASH));
+        assertEquals(Verification.FAILED, hasher.verify(PASSWORD, "not a bcrypt hash"));
+    }
+
+    @Test
+    void rejectsCostOutsideTheSupportedRange() {
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(9));
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(17, false));
+    }
+}
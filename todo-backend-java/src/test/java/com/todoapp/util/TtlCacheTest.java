@@ -0,0 +1,76 @@
+package com.todoapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TtlCacheTest {
+
+    @Test
+    void servesEntriesUntilTheyExpire() throws InterruptedException {
+        TtlCache<String, String> cache = new TtlCache<>(10, 50);
+        cache.put("key", "value");
+
+        assertEquals("value", cache.get("key"));
+
+        Thread.sleep(80);
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void perEntryTtlIsCappedByTheCacheTtl() throws InterruptedException {
+        TtlCache<String, String> cache = new TtlCache<>(10, 50);
+        cache.put("short", "value", 10);
+        cache.put("long", "value", 60000);
+
+        Thread.sleep(30);
+        assertNull(cache.get("short"));
+        assertEquals("value", cache.get("long"));
+
+        Thread.sleep(50);
+        assertNull(cache.get("long"));
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        TtlCache<String, String> noTtl = new TtlCache<>(10, 0);
+        TtlCache<String, String> noEntries = new TtlCache<>(0, 60000);
+        noTtl.put("key", "value");
+        noEntries.put("key", "value");
+
+        assertNull(noTtl.get("key"));
+        assertNull(noEntries.get("key"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        TtlCache<String, String> cache = new TtlCache<>(2, 60000);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void invalidateRemovesMatchingKeys() {
+        TtlCache<String, String> cache = new TtlCache<>(10, 60000);
+        cache.put("user-1:page", "1");
+        cache.put("user-1:stats", "2");
+        cache.put("user-2:page", "3");
+
+        cache.invalidateIf(key -> key.startsWith("user-1:"));
+
+        assertNull(cache.get("user-1:page"));
+        assertNull(cache.get("user-1:stats"));
+        assertEquals("3", cache.get("user-2:page"));
+    }
+}